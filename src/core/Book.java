@@ -19,6 +19,9 @@ public abstract class Book {
     protected String format;
     protected double value;
     protected Publisher publisher;
+    // "Nombre Apellido, Nombre Apellido": los autores no cambian después de
+    // creado el libro y las tablas lo piden en cada consulta
+    private final String authorNames;
 
     public Book(String title, ArrayList<Author> authors, String isbn, String genre, String format, double value, Publisher publisher) {
         this.title = title;
@@ -33,6 +36,21 @@ public abstract class Book {
             autor.addBook(this);
         }
         this.publisher.addBook(this);
+        this.authorNames = joinNames(authors);
+    }
+
+    private static String joinNames(ArrayList<Author> authors) {
+        if (authors.size() == 1) {
+            return authors.get(0).getFullname();
+        }
+        StringBuilder text = new StringBuilder(authors.size() * 24);
+        for (int i = 0; i < authors.size(); i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(authors.get(i).getFullname());
+        }
+        return text.toString();
     }
 
     public String getTitle() {
@@ -43,6 +61,10 @@ public abstract class Book {
         return authors;
     }
 
+    public String getAuthorNames() {
+        return authorNames;
+    }
+
     public String getIsbn() {
         return isbn;
     }
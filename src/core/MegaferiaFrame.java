@@ -6,14 +6,44 @@ package core;
 
 import com.formdev.flatlaf.FlatDarkLaf;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.JComboBox;
 import javax.swing.UIManager;
-import javax.swing.table.DefaultTableModel;
+import megaferia.analytics.PublisherCount;
+import megaferia.controller.AnalyticsController;
 import megaferia.controller.StandController;
 import megaferia.controller.PersonController;
 import megaferia.controller.PublisherController;
 import megaferia.controller.BookController;
+import megaferia.io.CatalogExporter;
+import megaferia.io.CsvImporter;
+import megaferia.io.ExportFormat;
+import megaferia.io.ImportReport;
+import megaferia.observer.ChangeEvent;
 import megaferia.observer.Observer;
+import megaferia.observer.Subject;
 import megaferia.response.Response;
+import megaferia.response.StatusCode;
+import megaferia.view.BackgroundTasks;
+import megaferia.view.BookTableModel;
+import megaferia.view.BookView;
+import megaferia.view.PersonTableModel;
+import megaferia.view.PersonView;
+import megaferia.view.PublisherTableModel;
+import megaferia.view.PublisherView;
+import megaferia.view.StandTableModel;
+import megaferia.view.StandView;
+import megaferia.view.TopAuthorTableModel;
 
 /**
  *
@@ -22,29 +52,70 @@ import megaferia.response.Response;
  */
 public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
 
-    private ArrayList<Stand> stands;
-    private ArrayList<Author> authors;
-    private ArrayList<Manager> managers;
-    private ArrayList<Narrator> narrators;
-    private ArrayList<Publisher> publishers;
-    private ArrayList<Book> books;
     private StandController standController;
     private PersonController personController;
     private PublisherController publisherController;
     private BookController bookController;
+    private AnalyticsController analyticsController;
+
+    // modelos de las pestañas de consulta: leen las filas de las vistas por índice
+    private final PublisherTableModel publisherTableModel = new PublisherTableModel();
+    private final PersonTableModel personTableModel = new PersonTableModel();
+    private final StandTableModel standTableModel = new StandTableModel();
+    private final BookTableModel booksByTypeModel = new BookTableModel();
+    private final BookTableModel booksByAuthorOrFormatModel = new BookTableModel();
+
+    // pestaña de búsqueda por prefijo de título o ISBN, armada en initSearchTab
+    private static final int SEARCH_PAGE = 200;
+    private final BookTableModel searchModel = new BookTableModel();
+    private final javax.swing.JTextField searchField = new javax.swing.JTextField(30);
+    private int searchLimit = SEARCH_PAGE;
+    private final TopAuthorTableModel topAuthorsModel = new TopAuthorTableModel();
+
+    // pestaña "Reportes", armada en initReportsTab si hay controlador de reportes
+    private static final int TOP_PUBLISHERS = 10;
+    private final javax.swing.JTextArea reportArea = new javax.swing.JTextArea();
+
+    // menú "Archivo", armado en initFileMenu cuando ya están los controladores
+    private final javax.swing.JMenu fileMenu = new javax.swing.JMenu("Archivo");
+    private static final String[] IMPORT_ENTITIES =
+            {"Stands", "Autores", "Gerentes", "Narradores", "Editoriales", "Libros"};
+    private static final String[] EXPORT_LISTINGS = {"Libros", "Stands", "Personas"};
+
+    // las llamadas a los controladores corren fuera del EDT
+    private final BackgroundTasks tasks = new BackgroundTasks();
+
+    // Los avisos llegan desde otros hilos y se juntan durante REFRESH_DELAY_MS
+    // antes de aplicarlos en el EDT, así una ráfaga de altas refresca una vez
+    private static final int REFRESH_DELAY_MS = 200;
+    private final Map<String, ChangeEvent.Merger> pendingChanges = new LinkedHashMap<>();
+    private boolean refreshScheduled;
+    private final javax.swing.Timer refreshTimer = new javax.swing.Timer(REFRESH_DELAY_MS, e -> applyChanges());
+
+    // última consulta de cada pestaña, para repetirla si cambian sus datos
+    private final Map<Object, Runnable> shownQueries = new HashMap<>();
+    // orden de los repositorios, el mismo de las filas de cada tabla
+    private static final Comparator<StandView> STAND_ORDER =
+            Comparator.comparingLong(StandView::getId);
+    private static final Comparator<PublisherView> PUBLISHER_ORDER =
+            Comparator.comparing(PublisherView::getNit);
+    // entradas ya presentes en cada combo
+    private final Map<JComboBox<String>, Set<String>> comboItems = new HashMap<>();
 
     /**
      * Creates new form MegaferiaFrame
      */
     public MegaferiaFrame() {
         initComponents();
+        jTable1.setModel(publisherTableModel);
+        jTable2.setModel(personTableModel);
+        jTable3.setModel(standTableModel);
+        jTable4.setModel(booksByTypeModel);
+        jTable5.setModel(booksByAuthorOrFormatModel);
+        jTable6.setModel(topAuthorsModel);
+        initSearchTab();
+        refreshTimer.setRepeats(false);
         setLocationRelativeTo(null);
-        this.stands = new ArrayList<>();
-        this.authors = new ArrayList<>();
-        this.managers = new ArrayList<>();
-        this.narrators = new ArrayList<>();
-        this.publishers = new ArrayList<>();
-        this.books = new ArrayList<>();
     }
     public MegaferiaFrame(StandController standController,
                         PersonController personController,
@@ -61,9 +132,473 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         this.personController.registerObserver(this);
         this.publisherController.registerObserver(this);
         this.bookController.registerObserver(this);
+        initFileMenu();
+        initCombos();
     }
+
+    /**
+     * Igual que el anterior, pero los avisos llegan por {@code events} (por
+     * ejemplo un {@link megaferia.observer.EventBus}) en vez de directamente
+     * de cada controlador.
+     */
+    public MegaferiaFrame(StandController standController,
+                        PersonController personController,
+                        PublisherController publisherController,
+                        BookController bookController,
+                        Subject events) {
+        this();
+
+        this.standController = standController;
+        this.personController = personController;
+        this.publisherController = publisherController;
+        this.bookController = bookController;
+
+        events.registerObserver(this);
+        initFileMenu();
+        initCombos();
+    }
+
+    /**
+     * Igual que el anterior, con la pestaña de reportes del catálogo y la
+     * exportación de listados en el menú "Archivo".
+     */
+    public MegaferiaFrame(StandController standController,
+                        PersonController personController,
+                        PublisherController publisherController,
+                        BookController bookController,
+                        AnalyticsController analyticsController,
+                        CatalogExporter exporter,
+                        Subject events) {
+        this(standController, personController, publisherController, bookController, events);
+
+        this.analyticsController = analyticsController;
+        initReportsTab();
+
+        javax.swing.JMenuItem exportItem = new javax.swing.JMenuItem("Exportar...");
+        exportItem.addActionListener(evt -> exportListing(exporter, exportItem));
+        fileMenu.add(exportItem);
+    }
+    /**
+     * Llena los combos con lo que ya está en los repositorios, por ejemplo lo
+     * que DurableStorage recuperó del disco: un aviso sin claves por tipo.
+     */
+    private void initCombos() {
+        for (String dataType : List.of("stand", "author", "manager", "narrator", "publisher")) {
+            onChange(ChangeEvent.unspecified(dataType));
+        }
+    }
+
     @Override
     public void update(String dataType) {
+        onChange(ChangeEvent.unspecified(dataType));
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        synchronized (pendingChanges) {
+            String slot = event.getDataType() + ":" + event.getKind();
+            ChangeEvent.Merger queued = pendingChanges.get(slot);
+            if (queued != null) {
+                queued.add(event);
+            } else {
+                pendingChanges.put(slot, new ChangeEvent.Merger(event));
+            }
+            if (refreshScheduled) {
+                return;
+            }
+            refreshScheduled = true;
+        }
+        java.awt.EventQueue.invokeLater(refreshTimer::start);
+    }
+
+    /**
+     * Aplica los avisos acumulados: agrega a los combos solo las entradas
+     * nuevas y, en las tablas de stands, editoriales y personas, reemplaza o
+     * agrega solo las filas de las claves del aviso. Los listados de libros
+     * y los reportes dependen de filtros o agregados, así que esos (y
+     * cualquier aviso sin claves) repiten su consulta.
+     */
+    private void applyChanges() {
+        List<ChangeEvent> changes;
+        synchronized (pendingChanges) {
+            changes = new ArrayList<>(pendingChanges.size());
+            for (ChangeEvent.Merger merger : pendingChanges.values()) {
+                changes.add(merger.build());
+            }
+            pendingChanges.clear();
+            refreshScheduled = false;
+        }
+
+        Set<Object> stale = new LinkedHashSet<>();
+        for (ChangeEvent change : changes) {
+            boolean keyed = !change.isUnspecified();
+            switch (change.getDataType()) {
+                case "stand":
+                    updateCombos(change, Long.class, standController::getStandsById,
+                            standController::getAllStands, MegaferiaFrame::standItem, jComboBox7);
+                    if (keyed) {
+                        // una compra avisa también a las editoriales con sus NIT
+                        mergeShown(standTableModel, change, Long.class, standController::getStandsById,
+                                rows -> standTableModel.mergeRows(rows, STAND_ORDER));
+                    } else {
+                        stale.add(standTableModel);
+                        stale.add(publisherTableModel);
+                    }
+                    stale.add(reportArea);
+                    break;
+                case "author":
+                    updateCombos(change, Long.class, personController::getAuthorsById,
+                            personController::getAllAuthors, MegaferiaFrame::personItem, jComboBox3, jComboBox10);
+                    mergePeople(change, personController::getAuthorsById, personTableModel::mergeAuthors, stale);
+                    break;
+                case "manager":
+                    updateCombos(change, Long.class, personController::getManagersById,
+                            personController::getAllManagers, MegaferiaFrame::personItem, jComboBox1);
+                    mergePeople(change, personController::getManagersById, personTableModel::mergeManagers, stale);
+                    break;
+                case "narrator":
+                    updateCombos(change, Long.class, personController::getNarratorsById,
+                            personController::getAllNarrators, MegaferiaFrame::personItem, jComboBox6);
+                    mergePeople(change, personController::getNarratorsById, personTableModel::mergeNarrators, stale);
+                    break;
+                case "publisher":
+                    updateCombos(change, String.class, publisherController::getPublishersById,
+                            publisherController::getAllPublishers, MegaferiaFrame::publisherItem, jComboBox5, jComboBox8);
+                    if (keyed) {
+                        mergeShown(publisherTableModel, change, String.class, publisherController::getPublishersById,
+                                rows -> publisherTableModel.mergeRows(rows, PUBLISHER_ORDER));
+                    } else {
+                        stale.add(publisherTableModel);
+                        stale.add(standTableModel);
+                    }
+                    // una editorial nueva cambia la fila de su gerente, que el aviso no nombra
+                    if (!keyed || change.getKind() != ChangeEvent.Kind.LINKED) {
+                        stale.add(personTableModel);
+                    }
+                    break;
+                case "book":
+                    stale.add(searchModel);
+                    stale.add(booksByTypeModel);
+                    stale.add(booksByAuthorOrFormatModel);
+                    stale.add(topAuthorsModel);
+                    stale.add(personTableModel);
+                    stale.add(reportArea);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        for (Object model : stale) {
+            Runnable query = shownQueries.get(model);
+            if (query != null) {
+                query.run();
+            }
+        }
+    }
+
+    private void mergePeople(ChangeEvent change, Function<List<Long>, Response<List<PersonView>>> byId,
+                             Consumer<List<PersonView>> merge, Set<Object> stale) {
+        if (change.isUnspecified()) {
+            stale.add(personTableModel);
+        } else {
+            mergeShown(personTableModel, change, Long.class, byId, merge);
+        }
+    }
+
+    /**
+     * Si la tabla está a la vista, trae solo las filas de las claves del
+     * aviso y se las pasa a {@code merge} en el EDT.
+     */
+    private <K, V> void mergeShown(Object model, ChangeEvent change, Class<K> keyType,
+                                   Function<List<K>, Response<List<V>>> byId,
+                                   Consumer<List<V>> merge) {
+        if (!shownQueries.containsKey(model)) {
+            return;
+        }
+        List<K> keys = keys(change, keyType);
+        tasks.run(null, () -> byId.apply(keys).getData(), merge);
+    }
+
+    private static <K> List<K> keys(ChangeEvent change, Class<K> keyType) {
+        return change.getKeys().stream().map(keyType::cast).toList();
+    }
+
+    /**
+     * Agrega a los combos las entradas de las claves del aviso. Un aviso sin
+     * claves relee todo, pero igual solo agrega lo que falta. Las compras
+     * (LINKED) no crean entradas.
+     */
+    @SafeVarargs
+    private <K, V> void updateCombos(ChangeEvent change, Class<K> keyType,
+                                     Function<List<K>, Response<List<V>>> byId,
+                                     Supplier<Response<List<V>>> all,
+                                     Function<V, String> item,
+                                     JComboBox<String>... combos) {
+        if (change.getKind() == ChangeEvent.Kind.LINKED) {
+            return;
+        }
+        List<K> keys = keys(change, keyType);
+        tasks.run(null, () -> {
+            List<V> views = (change.isUnspecified() ? all.get() : byId.apply(keys)).getData();
+            List<String> items = new ArrayList<>(views.size());
+            for (V view : views) {
+                items.add(item.apply(view));
+            }
+            return items;
+        }, items -> {
+            for (JComboBox<String> combo : combos) {
+                Set<String> present = comboItems.computeIfAbsent(combo, c -> new HashSet<>());
+                for (String text : items) {
+                    if (present.add(text)) {
+                        combo.addItem(text);
+                    }
+                }
+            }
+        });
+    }
+
+    private static String standItem(StandView stand) {
+        return String.valueOf(stand.getId());
+    }
+
+    // "id - nombre apellido", el formato que leen los botones de agregar
+    private static String personItem(PersonView person) {
+        return person.getId() + " - " + person.getFullname();
+    }
+
+    private static String publisherItem(PublisherView publisher) {
+        return publisher.getName() + " (" + publisher.getNit() + ")";
+    }
+
+    /**
+     * Pestaña "Buscar Libros": cada tecla lanza la búsqueda por prefijo en
+     * segundo plano y cancela la anterior si aún no terminó.
+     */
+    private void initSearchTab() {
+        java.awt.Font font = new java.awt.Font("Yu Gothic UI", 0, 18);
+        javax.swing.JLabel label = new javax.swing.JLabel("Título o ISBN");
+        label.setFont(font);
+        searchField.setFont(font);
+
+        javax.swing.JButton more = new javax.swing.JButton("Más resultados");
+        more.setFont(font);
+        more.addActionListener(evt -> {
+            searchLimit += SEARCH_PAGE;
+            searchBooks();
+        });
+
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchChanged();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchChanged();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+            }
+        });
+
+        javax.swing.JPanel top = new javax.swing.JPanel(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT, 18, 18));
+        top.add(label);
+        top.add(searchField);
+        javax.swing.JPanel bottom = new javax.swing.JPanel();
+        bottom.add(more);
+
+        javax.swing.JPanel panel = new javax.swing.JPanel(new java.awt.BorderLayout());
+        panel.add(top, java.awt.BorderLayout.NORTH);
+        panel.add(new javax.swing.JScrollPane(new javax.swing.JTable(searchModel)), java.awt.BorderLayout.CENTER);
+        panel.add(bottom, java.awt.BorderLayout.SOUTH);
+        jTabbedPane1.addTab("Buscar Libros", panel);
+    }
+
+    private void searchChanged() {
+        searchLimit = SEARCH_PAGE;
+        searchBooks();
+    }
+
+    private void searchBooks() {
+        String query = searchField.getText();
+        int limit = searchLimit;
+        show(searchModel, () -> tasks.load(searchModel, () -> {
+            Response<List<BookView>> response = bookController.searchBooks(query, 0, limit);
+            return response.isSuccess() ? response.getData() : null;
+        }));
+    }
+
+    /**
+     * Menú "Archivo" con la importación de CSV. El importador pasa cada fila
+     * por los mismos controladores que la ventana.
+     */
+    private void initFileMenu() {
+        CsvImporter importer = new CsvImporter(standController, personController,
+                publisherController, bookController);
+        javax.swing.JMenuItem importItem = new javax.swing.JMenuItem("Importar CSV...");
+        importItem.addActionListener(evt -> importCsv(importer, importItem));
+        fileMenu.add(importItem);
+
+        javax.swing.JMenuBar menuBar = new javax.swing.JMenuBar();
+        menuBar.add(fileMenu);
+        setJMenuBar(menuBar);
+    }
+
+    private void importCsv(CsvImporter importer, javax.swing.JMenuItem trigger) {
+        javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Archivos CSV", "csv"));
+        if (chooser.showOpenDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Object choice = javax.swing.JOptionPane.showInputDialog(this, "¿Qué contiene el archivo?",
+                "Importar CSV", javax.swing.JOptionPane.QUESTION_MESSAGE, null,
+                IMPORT_ENTITIES, IMPORT_ENTITIES[IMPORT_ENTITIES.length - 1]);
+        if (choice == null) {
+            return;
+        }
+        int header = javax.swing.JOptionPane.showConfirmDialog(this,
+                "¿La primera fila es un encabezado?", "Importar CSV",
+                javax.swing.JOptionPane.YES_NO_OPTION);
+        if (header == javax.swing.JOptionPane.CLOSED_OPTION) {
+            return;
+        }
+
+        CsvImporter.Entity entity = CsvImporter.Entity.values()[List.of(IMPORT_ENTITIES).indexOf(choice)];
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        boolean hasHeader = header == javax.swing.JOptionPane.YES_OPTION;
+        tasks.run(trigger, () -> {
+            try {
+                return Response.of(StatusCode.OK, "Importación terminada.",
+                        importer.importFile(file, entity, hasHeader));
+            } catch (java.io.IOException e) {
+                return Response.<ImportReport>of(StatusCode.INTERNAL_ERROR,
+                        "No se pudo leer el archivo: " + e.getMessage());
+            }
+        }, response -> {
+            if (!response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(),
+                        "Error", javax.swing.JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            ImportReport report = response.getData();
+            StringBuilder text = new StringBuilder(report.toString());
+            for (String error : report.getErrors()) {
+                text.append('\n').append(error);
+            }
+            javax.swing.JTextArea area = new javax.swing.JTextArea(text.toString(), 15, 60);
+            area.setEditable(false);
+            javax.swing.JOptionPane.showMessageDialog(this, new javax.swing.JScrollPane(area),
+                    response.getMessage(), javax.swing.JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /**
+     * Exporta libros, stands o personas al archivo elegido, en CSV o JSON
+     * según su extensión. El exportador recorre los repositorios por páginas
+     * en el hilo de fondo.
+     */
+    private void exportListing(CatalogExporter exporter, javax.swing.JMenuItem trigger) {
+        Object listing = javax.swing.JOptionPane.showInputDialog(this, "¿Qué listado desea exportar?",
+                "Exportar", javax.swing.JOptionPane.QUESTION_MESSAGE, null,
+                EXPORT_LISTINGS, EXPORT_LISTINGS[0]);
+        if (listing == null) {
+            return;
+        }
+        javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+        chooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("JSON", "json"));
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV", "csv"));
+        chooser.setSelectedFile(new java.io.File(listing.toString().toLowerCase(java.util.Locale.ROOT) + ".csv"));
+        if (chooser.showSaveDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        ExportFormat format = file.getFileName().toString().toLowerCase(java.util.Locale.ROOT).endsWith(".json")
+                ? ExportFormat.JSON
+                : ExportFormat.CSV;
+        tasks.run(trigger, () -> {
+            try (java.io.OutputStream out = java.nio.file.Files.newOutputStream(file)) {
+                long rows;
+                if (listing.equals("Libros")) {
+                    rows = exporter.exportBooks(out, format);
+                } else if (listing.equals("Stands")) {
+                    rows = exporter.exportStands(out, format);
+                } else {
+                    rows = exporter.exportPeople(out, format);
+                }
+                return Response.of(StatusCode.OK, rows + " filas exportadas a " + file.getFileName() + ".");
+            } catch (java.io.IOException e) {
+                return Response.of(StatusCode.INTERNAL_ERROR,
+                        "No se pudo escribir el archivo: " + e.getMessage());
+            }
+        }, response -> javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(),
+                response.isSuccess() ? "Éxito" : "Error",
+                response.isSuccess()
+                        ? javax.swing.JOptionPane.INFORMATION_MESSAGE
+                        : javax.swing.JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Pestaña "Reportes": editoriales con más libros, libros por género,
+     * valor promedio por formato y recaudo de los stands. Se recalcula
+     * cuando cambian libros o stands.
+     */
+    private void initReportsTab() {
+        reportArea.setEditable(false);
+        reportArea.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, 0, 16));
+
+        javax.swing.JButton refresh = new javax.swing.JButton("Actualizar");
+        refresh.setFont(new java.awt.Font("Yu Gothic UI", 0, 18));
+        refresh.addActionListener(evt -> showReports());
+        javax.swing.JPanel bottom = new javax.swing.JPanel();
+        bottom.add(refresh);
+
+        javax.swing.JPanel panel = new javax.swing.JPanel(new java.awt.BorderLayout());
+        panel.add(new javax.swing.JScrollPane(reportArea), java.awt.BorderLayout.CENTER);
+        panel.add(bottom, java.awt.BorderLayout.SOUTH);
+        jTabbedPane1.addTab("Reportes", panel);
+        showReports();
+    }
+
+    private void showReports() {
+        show(reportArea, () -> tasks.refresh(reportArea, this::buildReport, reportArea::setText));
+    }
+
+    // corre fuera del EDT: solo consulta el controlador y arma el texto
+    private String buildReport() {
+        StringBuilder text = new StringBuilder();
+        Response<List<PublisherCount>> top = analyticsController.getTopPublishers(TOP_PUBLISHERS);
+        text.append(top.getMessage()).append('\n');
+        for (PublisherCount publisher : top.getData()) {
+            text.append(String.format("  %-30s %-15s %8d%n",
+                    publisher.name(), publisher.nit(), publisher.books()));
+        }
+
+        Response<Map<String, Long>> genres = analyticsController.getGenreHistogram();
+        text.append('\n').append(genres.getMessage()).append('\n');
+        for (Map.Entry<String, Long> genre : genres.getData().entrySet()) {
+            text.append(String.format("  %-30s %8d%n", genre.getKey(), genre.getValue()));
+        }
+
+        Response<Map<String, Double>> formats = analyticsController.getAverageValueByFormat();
+        text.append('\n').append(formats.getMessage()).append('\n');
+        for (Map.Entry<String, Double> format : formats.getData().entrySet()) {
+            text.append(String.format("  %-30s %12.2f%n", format.getKey(), format.getValue()));
+        }
+
+        Response<Double> revenue = analyticsController.getStandRevenue();
+        text.append('\n').append(revenue.getMessage())
+                .append(String.format(" %.2f%n", revenue.getData()));
+        return text.toString();
+    }
+
+    /** Ejecuta la consulta de una pestaña y la recuerda para los refrescos. */
+    private void show(Object model, Runnable query) {
+        shownQueries.put(model, query);
+        query.run();
     }
 
     /**
@@ -1417,41 +1952,31 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         String priceText = jTextField1.getText();
     
         // Llamamos al controlador, que hace todas las validaciones
-        Response<Stand> response = standController.createStand(idText, priceText);
-    
-        if (response.isSuccess()) {
-            Stand created = response.getData();
+        tasks.run(jButton1, () -> standController.createStand(idText, priceText), response -> {
     
-            // Mensaje de éxito al usuario
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
+            if (response.isSuccess()) {
+                // Mensaje de éxito al usuario
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
 
-            if (created != null) {
-                // Mantenemos la lista local para que el resto del código
-                // antiguo que usa this.stands siga funcionando por ahora
-                this.stands.add(created);
+                // Limpiamos campos de texto
+                jTextField2.setText("");
+                jTextField1.setText("");
     
-                // Actualizamos el combo con el id del stand
-                jComboBox7.addItem(String.valueOf(created.getId()));
+            } else {
+                // Mensaje de error usando el mensaje del controlador
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            // Limpiamos campos de texto
-            jTextField2.setText("");
-            jTextField1.setText("");
-    
-        } else {
-            // Mensaje de error usando el mensaje del controlador
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton1ActionPerformed
 
 
@@ -1461,45 +1986,32 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         String lastname = jTextField5.getText();
     
         // Llamamos al controlador (MVC)
-        Response<Author> response = personController.createAuthor(idText, firstname, lastname);
+        tasks.run(jButton2, () -> personController.createAuthor(idText, firstname, lastname), response -> {
     
-        if (response.isSuccess()) {
-            Author created = response.getData();
-    
-            // Mensaje de éxito al usuario
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
-    
-            if (created != null) {
-                // Mantenemos la lista local mientras migramos el resto del código
-                this.authors.add(created);
+            if (response.isSuccess()) {
+                // Mensaje de éxito al usuario
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
     
-                String item = created.getId() + " - "
-                        + created.getFirstname() + " " + created.getLastname();
+                // Limpiamos campos
+                jTextField3.setText("");
+                jTextField4.setText("");
+                jTextField5.setText("");
     
-                // Donde antes se añadía el autor
-                jComboBox3.addItem(item);
-                jComboBox10.addItem(item);
+            } else {
+                // Mensaje de error
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            // Limpiamos campos
-            jTextField3.setText("");
-            jTextField4.setText("");
-            jTextField5.setText("");
-    
-        } else {
-            // Mensaje de error
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton2ActionPerformed
 
     private void jButton16ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton16ActionPerformed
@@ -1507,39 +2019,29 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         String firstname = jTextField4.getText();
         String lastname = jTextField5.getText();
     
-        Response<Manager> response = personController.createManager(idText, firstname, lastname);
+        tasks.run(jButton16, () -> personController.createManager(idText, firstname, lastname), response -> {
     
-        if (response.isSuccess()) {
-            Manager created = response.getData();
-    
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
-    
-            if (created != null) {
-                this.managers.add(created);
+            if (response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
     
-                String item = created.getId() + " - "
-                        + created.getFirstname() + " " + created.getLastname();
+                jTextField3.setText("");
+                jTextField4.setText("");
+                jTextField5.setText("");
     
-                jComboBox1.addItem(item);
+            } else {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            jTextField3.setText("");
-            jTextField4.setText("");
-            jTextField5.setText("");
-    
-        } else {
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton16ActionPerformed
 
     private void jButton17ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton17ActionPerformed
@@ -1547,39 +2049,29 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         String firstname = jTextField4.getText();
         String lastname = jTextField5.getText();
     
-        Response<Narrator> response = personController.createNarrator(idText, firstname, lastname);
-    
-        if (response.isSuccess()) {
-            Narrator created = response.getData();
-    
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
+        tasks.run(jButton17, () -> personController.createNarrator(idText, firstname, lastname), response -> {
     
-            if (created != null) {
-                this.narrators.add(created);
+            if (response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
     
-                String item = created.getId() + " - "
-                        + created.getFirstname() + " " + created.getLastname();
+                jTextField3.setText("");
+                jTextField4.setText("");
+                jTextField5.setText("");
     
-                jComboBox6.addItem(item);
+            } else {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            jTextField3.setText("");
-            jTextField4.setText("");
-            jTextField5.setText("");
-    
-        } else {
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton17ActionPerformed
 
 
@@ -1610,47 +2102,35 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         // - nombre/dirección no vacíos
         // - id de gerente numérico, >= 0, <= 15 dígitos
         // - gerente existente en el repositorio
-        Response<Publisher> response = publisherController.createPublisher(
+        tasks.run(jButton3, () -> publisherController.createPublisher(
                 nit,
                 name,
                 address,
                 managerIdText
-        );
+        ), response -> {
     
-        if (response.isSuccess()) {
-            Publisher created = response.getData();
-    
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
-    
-            if (created != null) {
-                // Mientras migramos todo, seguimos manteniendo la lista local
-                this.publishers.add(created);
+            if (response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
     
-                String item = created.getName() + " (" + created.getNit() + ")";
+                // Limpiamos campos
+                jTextField6.setText("");
+                jTextField7.setText("");
+                jTextField8.setText("");
     
-                // Donde antes se añadía la editorial
-                jComboBox5.addItem(item);
-                jComboBox8.addItem(item);
+            } else {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            // Limpiamos campos
-            jTextField6.setText("");
-            jTextField7.setText("");
-            jTextField8.setText("");
-    
-        } else {
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton3ActionPerformed
 
 
@@ -1695,28 +2175,37 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
             }
         }
     
-        String publisherNit;
-        int idx = publisherData.indexOf('(');
-        if (idx != -1) {
-            publisherNit = publisherData.substring(idx + 1, publisherData.length() - 1).trim();
-        } else {
+        if (publisherData == null) {
+            javax.swing.JOptionPane.showMessageDialog(
+                    this,
+                    "Debe seleccionar una editorial.",
+                    "Error",
+                    javax.swing.JOptionPane.ERROR_MESSAGE
+            );
+            return;
+        }
+        // el NIT va entre los últimos paréntesis: "nombre (nit)"
+        int open = publisherData.lastIndexOf('(');
+        int close = publisherData.lastIndexOf(')');
+        if (open == -1 || close < open || !publisherData.substring(close + 1).isBlank()) {
             javax.swing.JOptionPane.showMessageDialog(
                     this,
-                    "Formato de editorial inválido.",
+                    "Formato de editorial inválido: " + publisherData,
                     "Error",
                     javax.swing.JOptionPane.ERROR_MESSAGE
             );
             return;
         }
+        String publisherNit = publisherData.substring(open + 1, close).trim();
     
-        Response<Book> response = null;
+        java.util.concurrent.Callable<Response<Book>> create;
     
     
         if (jRadioButton1.isSelected()) {
             String pagesText = jTextField13.getText();
             String copiesText = jTextField14.getText();
     
-            response = bookController.createPrintedBook(
+            create = () -> bookController.createPrintedBook(
                     title,
                     authorIds,
                     isbn,
@@ -1730,7 +2219,7 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         } else if (jRadioButton2.isSelected()) {
             String hyperlink = jTextField15.getText();
     
-            response = bookController.createDigitalBook(
+            create = () -> bookController.createDigitalBook(
                     title,
                     authorIds,
                     isbn,
@@ -1745,6 +2234,15 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
             String durationText = jTextField16.getText();
     
             String narratorItem = (String) jComboBox6.getItemAt(jComboBox6.getSelectedIndex());
+            if (narratorItem == null) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        "Debe seleccionar un narrador válido.",
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
+                return;
+            }
             String[] narratorParts = narratorItem.split(" - ");
             if (narratorParts.length == 0) {
                 javax.swing.JOptionPane.showMessageDialog(
@@ -1757,7 +2255,7 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
             }
             String narratorIdText = narratorParts[0].trim();
     
-            response = bookController.createAudiobook(
+            create = () -> bookController.createAudiobook(
                     title,
                     authorIds,
                     isbn,
@@ -1779,39 +2277,34 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
         }
     
     
-        if (response != null && response.isSuccess()) {
-            Book created = response.getData();
+        tasks.run(jButton4, create, response -> {
+            if (response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
     
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Éxito",
-                    javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
+                jTextField9.setText("");
+                jTextArea2.setText("");
+                jTextField11.setText("");
+                jTextField12.setText("");
+                jTextField13.setText("");
+                jTextField14.setText("");
+                jTextField15.setText("");
+                jTextField16.setText("");
+                buttonGroup1.clearSelection(); 
     
-            if (created != null) {
-                this.books.add(created);
-                
+            } else {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-    
-            jTextField9.setText("");
-            jTextArea2.setText("");
-            jTextField11.setText("");
-            jTextField12.setText("");
-            jTextField13.setText("");
-            jTextField14.setText("");
-            jTextField15.setText("");
-            jTextField16.setText("");
-            buttonGroup1.clearSelection(); 
-    
-        } else if (response != null) {
-            javax.swing.JOptionPane.showMessageDialog(
-                    this,
-                    response.getMessage(),
-                    "Error",
-                    javax.swing.JOptionPane.ERROR_MESSAGE
-            );
-        }
+        });
     }//GEN-LAST:event_jButton4ActionPerformed
 
 
@@ -1840,214 +2333,127 @@ public class MegaferiaFrame extends javax.swing.JFrame implements Observer {
     }//GEN-LAST:event_jButton7ActionPerformed
 
     private void jButton6ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton6ActionPerformed
-        // TODO add your handling code here:
-        String[] standIds = jTextArea3.getText().split("\n");
-        String[] publishersData = jTextArea1.getText().split("\n");
-        
-        ArrayList<Stand> stands = new ArrayList<>();
-        for (String standId : standIds) {
-            for (Stand stand : this.stands) {
-                if (stand.getId() == Long.parseLong(standId)) {
-                    stands.add(stand);
-                }
+        // Cada línea es un id de stand o "nombre (nit)" de una editorial
+        List<Long> standIds = new ArrayList<>();
+        for (String standLine : jTextArea3.getText().split("\n")) {
+            if (standLine.isBlank()) continue;
+            try {
+                standIds.add(Long.parseLong(standLine.trim()));
+            } catch (NumberFormatException e) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        "Formato de stand inválido: " + standLine,
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
+                return;
             }
         }
-        
-        ArrayList<Publisher> publishers = new ArrayList<>();
-        for (String publisherData : publishersData) {
-            String publisherNit = publisherData.split(" ")[1].replace("(", "").replace(")", "");
-            for (Publisher publisher : this.publishers) {
-                if (publisher.getNit().equals(publisherNit)) {
-                    publishers.add(publisher);
-                }
+
+        List<String> publisherNits = new ArrayList<>();
+        for (String publisherLine : jTextArea1.getText().split("\n")) {
+            if (publisherLine.isBlank()) continue;
+            // el NIT va entre los últimos paréntesis: "nombre (nit)"
+            int open = publisherLine.lastIndexOf('(');
+            int close = publisherLine.lastIndexOf(')');
+            if (open == -1 || close < open || !publisherLine.substring(close + 1).isBlank()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        "Formato de editorial inválido: " + publisherLine,
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
+                return;
             }
+            publisherNits.add(publisherLine.substring(open + 1, close).trim());
         }
-        
-        for (Stand stand : stands) {
-            for (Publisher publisher : publishers) {
-                stand.addPublisher(publisher);
-                publisher.addStand(stand);
+
+        // El controlador valida y registra la compra en un solo lote
+        tasks.run(jButton6, () -> standController.buyStands(standIds, publisherNits), response -> {
+            if (response.isSuccess()) {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Éxito",
+                        javax.swing.JOptionPane.INFORMATION_MESSAGE
+                );
+
+                jTextArea3.setText("");
+                jTextArea1.setText("");
+
+            } else {
+                javax.swing.JOptionPane.showMessageDialog(
+                        this,
+                        response.getMessage(),
+                        "Error",
+                        javax.swing.JOptionPane.ERROR_MESSAGE
+                );
             }
-        }
+        });
     }//GEN-LAST:event_jButton6ActionPerformed
 
     private void jButton12ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton12ActionPerformed
         // TODO add your handling code here:
-        DefaultTableModel model = (DefaultTableModel) jTable1.getModel();
-        model.setRowCount(0);
-        for (Publisher publisher : this.publishers) {
-            model.addRow(new Object[]{publisher.getNit(), publisher.getName(), publisher.getAddress(), publisher.getManager().getFullname(), publisher.getStandQuantity()});
-        }
+        show(publisherTableModel, () ->
+                tasks.load(publisherTableModel, () -> publisherController.getAllPublishers().getData()));
     }//GEN-LAST:event_jButton12ActionPerformed
 
     private void jButton13ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton13ActionPerformed
         // TODO add your handling code here:
-        DefaultTableModel model = (DefaultTableModel) jTable2.getModel();
-        model.setRowCount(0);
-        for (Author author : this.authors) {
-            model.addRow(new Object[]{author.getId(), author.getFullname(), "Autor", "-", author.getBookQuantity()});
-        }
-        for (Manager manager : this.managers) {
-            model.addRow(new Object[]{manager.getId(), manager.getFullname(), "Gerente", manager.getPublisher().getName(), 0});
-        }
-        for (Narrator narrator : this.narrators) {
-            model.addRow(new Object[]{narrator.getId(), narrator.getFullname(), "Narrador", "-", narrator.getBookQuantity()});
-        }
+        show(personTableModel, () -> tasks.refresh(personTableModel, () -> List.of(
+                personController.getAllAuthors().getData(),
+                personController.getAllManagers().getData(),
+                personController.getAllNarrators().getData()),
+                people -> personTableModel.setRows(people.get(0), people.get(1), people.get(2))));
     }//GEN-LAST:event_jButton13ActionPerformed
 
     private void jButton14ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton14ActionPerformed
         // TODO add your handling code here:
-        DefaultTableModel model = (DefaultTableModel) jTable3.getModel();
-        model.setRowCount(0);
-        for (Stand stand : this.stands) {
-            String publishers = "";
-            if (stand.getPublisherQuantity() > 0) {
-                publishers += stand.getPublishers().get(0).getName();
-                for (int i = 1; i < stand.getPublisherQuantity(); i++) {
-                    publishers += (", " + stand.getPublishers().get(i).getName());
-                }
-            }
-            model.addRow(new Object[]{stand.getId(), stand.getPrice(), stand.getPublisherQuantity() > 0 ? "Si" : "No", publishers});
-        }
+        show(standTableModel, () ->
+                tasks.load(standTableModel, () -> standController.getAllStands().getData()));
     }//GEN-LAST:event_jButton14ActionPerformed
 
     private void jButton15ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton15ActionPerformed
         // TODO add your handling code here:
         String search = jComboBox9.getItemAt(jComboBox9.getSelectedIndex());
-        
-        DefaultTableModel model = (DefaultTableModel) jTable4.getModel();
-        model.setRowCount(0);
-        
-        if (search.equals("Libros Impresos")) {
-            for (Book book : this.books) {
-                if (book instanceof PrintedBook printedBook) {
-                    String authors = printedBook.getAuthors().get(0).getFullname();
-                    for (int i = 1; i < printedBook.getAuthors().size(); i++) {
-                        authors += (", " + printedBook.getAuthors().get(i).getFullname());
-                    }
-                    model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                }
-            }
-        }
-        if (search.equals("Libros Digitales")) {
-            for (Book book : this.books) {
-                if (book instanceof DigitalBook digitalBook) {
-                    String authors = digitalBook.getAuthors().get(0).getFullname();
-                    for (int i = 1; i < digitalBook.getAuthors().size(); i++) {
-                        authors += (", " + digitalBook.getAuthors().get(i).getFullname());
-                    }
-                    model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                }
-            }
-        }
-        if (search.equals("Audiolibros")) {
-            for (Book book : this.books) {
-                if (book instanceof Audiobook audiobook) {
-                    String authors = audiobook.getAuthors().get(0).getFullname();
-                    for (int i = 1; i < audiobook.getAuthors().size(); i++) {
-                        authors += (", " + audiobook.getAuthors().get(i).getFullname());
-                    }
-                    model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                }
-            }
-        }
-        if (search.equals("Todos los Libros")) {
-            for (Book book : this.books) { 
-                String authors = book.getAuthors().get(0).getFullname();
-                for (int i = 1; i < book.getAuthors().size(); i++) {
-                    authors += (", " + book.getAuthors().get(i).getFullname());
-                }
-                if (book instanceof PrintedBook printedBook) {
-                    model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                }
-                if (book instanceof DigitalBook digitalBook) {
-                    model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                }
-                if (book instanceof Audiobook audiobook) {
-                    model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                }
-            }
-        }
+
+        show(booksByTypeModel, () ->
+                tasks.load(booksByTypeModel, () -> bookController.getBooksByType(search).getData()));
     }//GEN-LAST:event_jButton15ActionPerformed
 
     private void jButton18ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton18ActionPerformed
         // TODO add your handling code here:
+        if (jComboBox10.getSelectedIndex() <= 0) {
+            return;
+        }
         String[] authorData = jComboBox10.getItemAt(jComboBox10.getSelectedIndex()).split(" - ");
         long authorId = Long.parseLong(authorData[0]);
-        
-        Author author = null;
-        for (Author auth : this.authors) {
-            if (auth.getId() == authorId) {
-                author = auth;
-            }
-        }
-        
-        DefaultTableModel model = (DefaultTableModel) jTable5.getModel();
-        model.setRowCount(0);
-        
-        for (Book book : author.getBooks()) { 
-            String authors = book.getAuthors().get(0).getFullname();
-            for (int i = 1; i < book.getAuthors().size(); i++) {
-                authors += (", " + book.getAuthors().get(i).getFullname());
-            }
-            if (book instanceof PrintedBook printedBook) {
-                model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-            }
-            if (book instanceof DigitalBook digitalBook) {
-                model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-            }
-            if (book instanceof Audiobook audiobook) {
-                model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-            }
-        }
+
+        show(booksByAuthorOrFormatModel, () ->
+                tasks.refresh(booksByAuthorOrFormatModel, () -> bookController.getBooksByAuthor(authorId), response -> {
+                    if (!response.isSuccess()) {
+                        javax.swing.JOptionPane.showMessageDialog(this, response.getMessage(), "Error",
+                                javax.swing.JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    booksByAuthorOrFormatModel.setRows(response.getData());
+                }));
     }//GEN-LAST:event_jButton18ActionPerformed
 
     private void jButton19ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton19ActionPerformed
         // TODO add your handling code here:
         String format = jComboBox11.getItemAt(jComboBox11.getSelectedIndex());
-        
-        DefaultTableModel model = (DefaultTableModel) jTable5.getModel();
-        model.setRowCount(0);
-        
-        for (Book book : this.books) { 
-            if (book.getFormat().equals(format)) {
-                String authors = book.getAuthors().get(0).getFullname();
-                for (int i = 1; i < book.getAuthors().size(); i++) {
-                    authors += (", " + book.getAuthors().get(i).getFullname());
-                }
-                if (book instanceof PrintedBook printedBook) {
-                    model.addRow(new Object[]{printedBook.getTitle(), authors, printedBook.getIsbn(), printedBook.getGenre(), printedBook.getFormat(), printedBook.getValue(), printedBook.getPublisher().getName(), printedBook.getCopies(), printedBook.getPages(), "-", "-", "-"});
-                }
-                if (book instanceof DigitalBook digitalBook) {
-                    model.addRow(new Object[]{digitalBook.getTitle(), authors, digitalBook.getIsbn(), digitalBook.getGenre(), digitalBook.getFormat(), digitalBook.getValue(), digitalBook.getPublisher().getName(), "-", "-", digitalBook.hasHyperlink() ? digitalBook.getHyperlink() : "No", "-", "-"});
-                }
-                if (book instanceof Audiobook audiobook) {
-                    model.addRow(new Object[]{audiobook.getTitle(), authors, audiobook.getIsbn(), audiobook.getGenre(), audiobook.getFormat(), audiobook.getValue(), audiobook.getPublisher().getName(), "-", "-", "-", audiobook.getNarrador().getFullname(), audiobook.getDuration()});
-                }
-            }
-        }
+
+        show(booksByAuthorOrFormatModel, () -> tasks.load(booksByAuthorOrFormatModel, () -> {
+            Response<List<BookView>> response = bookController.getBooksByFormat(format);
+            return response.isSuccess() ? response.getData() : null;
+        }));
     }//GEN-LAST:event_jButton19ActionPerformed
 
     private void jButton20ActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButton20ActionPerformed
         // TODO add your handling code here:
-        ArrayList<Author> authorsMax = new ArrayList<>();
-        int maxPublishers = -1;
-        for (Author author : this.authors) {
-            if (author.getPublisherQuantity() > maxPublishers) {
-                maxPublishers = author.getPublisherQuantity();
-                authorsMax.clear();
-                authorsMax.add(author);
-            } else if (author.getPublisherQuantity() == maxPublishers) {
-                authorsMax.add(author);
-            }
-        }
-        
-        DefaultTableModel model = (DefaultTableModel) jTable6.getModel();
-        model.setRowCount(0);
-        
-        for (Author author : authorsMax) {
-            model.addRow(new Object[]{author.getId(), author.getFullname(), maxPublishers});
-        }
+        show(topAuthorsModel, () ->
+                tasks.load(topAuthorsModel, () -> bookController.getAuthorsWithMostDifferentPublishers().getData()));
     }//GEN-LAST:event_jButton20ActionPerformed
 
     /**
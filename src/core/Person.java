@@ -13,11 +13,14 @@ public abstract class Person {
     protected final long id;
     protected String firstname;
     protected String lastname;
+    // se arma una vez: las tablas lo piden en cada repintado
+    private final String fullname;
 
     public Person(long id, String firstname, String lastname) {
         this.id = id;
         this.firstname = firstname;
         this.lastname = lastname;
+        this.fullname = firstname + " " + lastname;
     }
 
     public long getId() {
@@ -33,7 +36,7 @@ public abstract class Person {
     }
     
     public String getFullname() {
-        return firstname + " " + lastname;
+        return fullname;
     }
     
 }
@@ -1,26 +1,52 @@
 package megaferia;
 
+import core.Author;
+import core.Manager;
 import core.MegaferiaFrame;
+import core.Narrator;
+import core.Publisher;
+import java.io.IOException;
+import java.nio.file.Paths;
+import megaferia.analytics.CatalogAnalytics;
+import megaferia.controller.AnalyticsController;
 import megaferia.controller.BookController;
 import megaferia.controller.PersonController;
 import megaferia.controller.PublisherController;
 import megaferia.controller.StandController;
-import megaferia.storage.AuthorRepository;
-import megaferia.storage.BookRepository;
-import megaferia.storage.ManagerRepository;
-import megaferia.storage.NarratorRepository;
-import megaferia.storage.PublisherRepository;
-import megaferia.storage.StandRepository;
+import megaferia.io.CatalogExporter;
+import megaferia.observer.EventBus;
+import megaferia.storage.BookStore;
+import megaferia.storage.LongRepository;
+import megaferia.storage.Repository;
+import megaferia.storage.StandStore;
+import megaferia.storage.persistence.DurableStorage;
 
 public class MegaferiaMain {
 
     public static void main(String[] args) {
-        StandRepository standRepository = new StandRepository();
-        AuthorRepository authorRepository = new AuthorRepository();
-        ManagerRepository managerRepository = new ManagerRepository();
-        NarratorRepository narratorRepository = new NarratorRepository();
-        PublisherRepository publisherRepository = new PublisherRepository();
-        BookRepository bookRepository = new BookRepository();
+        // Los datos de la feria se guardan en un log durable; al arrancar se
+        // reproduce para recuperar el estado anterior
+        DurableStorage storage;
+        try {
+            storage = DurableStorage.open(Paths.get(System.getProperty("megaferia.data", "data")));
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el almacenamiento de la feria: " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                storage.close();
+            } catch (IOException e) {
+                System.err.println("No se pudo cerrar el almacenamiento de la feria: " + e.getMessage());
+            }
+        }));
+
+        StandStore standRepository = storage.stands();
+        LongRepository<Author> authorRepository = storage.authors();
+        LongRepository<Manager> managerRepository = storage.managers();
+        LongRepository<Narrator> narratorRepository = storage.narrators();
+        Repository<Publisher, String> publisherRepository = storage.publishers();
+        BookStore bookRepository = storage.books();
 
         StandController standController =
                 new StandController(standRepository, publisherRepository);
@@ -34,13 +60,34 @@ public class MegaferiaMain {
         BookController bookController =
                 new BookController(bookRepository, authorRepository, publisherRepository, narratorRepository);
 
+        // los reportes se recalculan solo cuando cambian libros o stands
+        CatalogAnalytics analytics =
+                new CatalogAnalytics(bookRepository, standRepository, publisherRepository);
+        bookController.registerObserver(analytics);
+        standController.registerObserver(analytics);
+        AnalyticsController analyticsController = new AnalyticsController(analytics);
+
+        CatalogExporter exporter = new CatalogExporter(bookRepository, standRepository,
+                authorRepository, managerRepository, narratorRepository);
+
+        // la ventana recibe los avisos en otro hilo y agrupados por tipo, para
+        // que refrescarla no frene las escrituras
+        EventBus events = new EventBus();
+        standController.registerObserver(events);
+        personController.registerObserver(events);
+        publisherController.registerObserver(events);
+        bookController.registerObserver(events);
+
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
                 MegaferiaFrame frame = new MegaferiaFrame(
                         standController,
                         personController,
                         publisherController,
-                        bookController
+                        bookController,
+                        analyticsController,
+                        exporter,
+                        events
                 );
                 frame.setVisible(true);
             }
@@ -0,0 +1,71 @@
+package megaferia.analytics;
+
+import core.Book;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agregados de un conjunto de libros: libros por editorial, por género y
+ * suma y cantidad de valores por formato. Se combinan por partes, así que
+ * sirven tanto para el cálculo fork/join sobre todo el catálogo como para
+ * sumar un libro suelto.
+ */
+final class BookTotals {
+
+    final Map<String, Long> booksByPublisher = new HashMap<>();
+    final Map<String, Long> booksByGenre = new HashMap<>();
+    final Map<String, double[]> valueByFormat = new HashMap<>(); // {suma, cantidad}
+
+    void add(Book book) {
+        booksByPublisher.merge(book.getPublisher().getNit(), 1L, Long::sum);
+        booksByGenre.merge(book.getGenre(), 1L, Long::sum);
+        double[] value = valueByFormat.computeIfAbsent(book.getFormat(), format -> new double[2]);
+        value[0] += book.getValue();
+        value[1]++;
+    }
+
+    BookTotals merge(BookTotals other) {
+        other.booksByPublisher.forEach((nit, books) -> booksByPublisher.merge(nit, books, Long::sum));
+        other.booksByGenre.forEach((genre, books) -> booksByGenre.merge(genre, books, Long::sum));
+        other.valueByFormat.forEach((format, value) -> {
+            double[] mine = valueByFormat.computeIfAbsent(format, f -> new double[2]);
+            mine[0] += value[0];
+            mine[1] += value[1];
+        });
+        return this;
+    }
+
+    /** Tarea fork/join que parte la lista hasta {@value #SLICE} libros por hoja. */
+    static final class Task extends RecursiveTask<BookTotals> {
+
+        private static final int SLICE = 4096;
+
+        private final List<Book> books;
+        private final int from;
+        private final int to;
+
+        Task(List<Book> books, int from, int to) {
+            this.books = books;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BookTotals compute() {
+            if (to - from <= SLICE) {
+                BookTotals totals = new BookTotals();
+                for (int i = from; i < to; i++) {
+                    totals.add(books.get(i));
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            Task left = new Task(books, from, middle);
+            left.fork();
+            BookTotals right = new Task(books, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
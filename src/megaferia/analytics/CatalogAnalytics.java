@@ -0,0 +1,134 @@
+package megaferia.analytics;
+
+import core.Book;
+import core.Publisher;
+import core.Stand;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import megaferia.observer.ChangeEvent;
+import megaferia.observer.Observer;
+import megaferia.storage.Repository;
+
+/**
+ * Reportes agregados del catálogo (editoriales con más libros, histograma de
+ * géneros, valor promedio por formato y recaudo de stands vendidos).
+ *
+ * <p>Los agregados se calculan en paralelo con fork/join sobre la
+ * instantánea de {@code findAll} y se guardan. Los libros creados se suman
+ * a lo ya calculado según las claves del aviso; los demás cambios de libros
+ * o stands marcan los agregados como vencidos y el siguiente reporte los
+ * recalcula.
+ */
+public class CatalogAnalytics implements Observer {
+
+    private final Repository<Book, String> bookRepository;
+    private final Repository<Stand, Long> standRepository;
+    private final Repository<Publisher, String> publisherRepository;
+    private final ForkJoinPool pool;
+
+    private BookTotals bookTotals;
+    private Double standRevenue;
+
+    public CatalogAnalytics(Repository<Book, String> bookRepository,
+                            Repository<Stand, Long> standRepository,
+                            Repository<Publisher, String> publisherRepository) {
+        this(bookRepository, standRepository, publisherRepository, ForkJoinPool.commonPool());
+    }
+
+    public CatalogAnalytics(Repository<Book, String> bookRepository,
+                            Repository<Stand, Long> standRepository,
+                            Repository<Publisher, String> publisherRepository,
+                            ForkJoinPool pool) {
+        this.bookRepository = bookRepository;
+        this.standRepository = standRepository;
+        this.publisherRepository = publisherRepository;
+        this.pool = pool;
+    }
+
+    @Override
+    public synchronized void update(String dataType) {
+        if ("book".equals(dataType)) {
+            bookTotals = null;
+        } else if ("stand".equals(dataType)) {
+            standRevenue = null;
+        }
+    }
+
+    /**
+     * Los libros creados se suman a los agregados ya calculados; cualquier
+     * otro cambio de libros o stands los marca como vencidos. Un stand
+     * recién creado no tiene editoriales y no cambia el recaudo.
+     */
+    @Override
+    public synchronized void onChange(ChangeEvent event) {
+        if (event.isUnspecified()) {
+            update(event.getDataType());
+        } else if ("book".equals(event.getDataType())) {
+            if (event.getKind() != ChangeEvent.Kind.CREATED) {
+                bookTotals = null;
+            } else if (bookTotals != null) {
+                List<String> isbns = new ArrayList<>(event.getKeys().size());
+                for (Object key : event.getKeys()) {
+                    isbns.add((String) key);
+                }
+                for (Book book : bookRepository.findAllById(isbns).values()) {
+                    bookTotals.add(book);
+                }
+            }
+        } else if ("stand".equals(event.getDataType()) && event.getKind() != ChangeEvent.Kind.CREATED) {
+            standRevenue = null;
+        }
+    }
+
+    /** Las {@code k} editoriales con más libros, de mayor a menor (empate por NIT). */
+    public synchronized List<PublisherCount> topPublishers(int k) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(books().booksByPublisher.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<PublisherCount> top = new ArrayList<>(Math.min(k, entries.size()));
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(k, entries.size()))) {
+            Optional<Publisher> publisher = publisherRepository.findById(entry.getKey());
+            top.add(new PublisherCount(entry.getKey(),
+                    publisher.map(Publisher::getName).orElse(""), entry.getValue()));
+        }
+        return top;
+    }
+
+    /** Libros por género, en orden alfabético. */
+    public synchronized Map<String, Long> genreHistogram() {
+        return Collections.unmodifiableMap(new TreeMap<>(books().booksByGenre));
+    }
+
+    /** Valor promedio de los libros por formato, en orden alfabético. */
+    public synchronized Map<String, Double> averageValueByFormat() {
+        Map<String, Double> averages = new TreeMap<>();
+        books().valueByFormat.forEach((format, value) -> averages.put(format, value[0] / value[1]));
+        return Collections.unmodifiableMap(averages);
+    }
+
+    /** Suma de los precios de los stands que ya tienen al menos una editorial. */
+    public synchronized double standRevenue() {
+        if (standRevenue == null) {
+            standRevenue = pool.submit(() -> standRepository.findAll().parallelStream()
+                    .filter(stand -> stand.getPublisherQuantity() > 0)
+                    .mapToDouble(Stand::getPrice)
+                    .sum()).join();
+        }
+        return standRevenue;
+    }
+
+    private BookTotals books() {
+        if (bookTotals == null) {
+            List<Book> books = bookRepository.findAll();
+            bookTotals = pool.invoke(new BookTotals.Task(books, 0, books.size()));
+        }
+        return bookTotals;
+    }
+}
@@ -0,0 +1,5 @@
+package megaferia.analytics;
+
+/** Editorial con la cantidad de libros que tiene en el catálogo. */
+public record PublisherCount(String nit, String name, long books) {
+}
@@ -0,0 +1,42 @@
+package megaferia.controller;
+
+import megaferia.analytics.CatalogAnalytics;
+import megaferia.analytics.PublisherCount;
+import megaferia.response.Response;
+import megaferia.response.StatusCode;
+
+import java.util.List;
+import java.util.Map;
+
+public class AnalyticsController {
+
+    private final CatalogAnalytics analytics;
+
+    public AnalyticsController(CatalogAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    public Response<List<PublisherCount>> getTopPublishers(int k) {
+        if (k <= 0) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La cantidad de editoriales debe ser mayor que cero.");
+        }
+        return Response.of(StatusCode.OK,
+                "Editoriales con más libros.", analytics.topPublishers(k));
+    }
+
+    public Response<Map<String, Long>> getGenreHistogram() {
+        return Response.of(StatusCode.OK,
+                "Libros por género.", analytics.genreHistogram());
+    }
+
+    public Response<Map<String, Double>> getAverageValueByFormat() {
+        return Response.of(StatusCode.OK,
+                "Valor promedio de los libros por formato.", analytics.averageValueByFormat());
+    }
+
+    public Response<Double> getStandRevenue() {
+        return Response.of(StatusCode.OK,
+                "Recaudo de los stands vendidos.", analytics.standRevenue());
+    }
+}
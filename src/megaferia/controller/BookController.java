@@ -8,33 +8,45 @@ import core.Manager;
 import core.Narrator;
 import core.PrintedBook;
 import core.Publisher;
+import megaferia.observer.ChangeEvent;
 import megaferia.observer.Observer;
 import megaferia.observer.Subject;
 import megaferia.response.Response;
 import megaferia.response.StatusCode;
+import megaferia.storage.BookDraft;
+import megaferia.storage.BookStore;
+import megaferia.storage.LongRepository;
 import megaferia.storage.Repository;
+import megaferia.storage.TopAuthors;
+import megaferia.view.BookView;
+import megaferia.view.PersonView;
+import megaferia.view.Views;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class BookController implements Subject {
 
-    private final Repository<Book, String> bookRepository;
-    private final Repository<Author, Long> authorRepository;
+    private final BookStore bookRepository;
+    private final LongRepository<Author> authorRepository;
     private final Repository<Publisher, String> publisherRepository;
-    private final Repository<Narrator, Long> narratorRepository;
+    private final LongRepository<Narrator> narratorRepository;
     private final List<Observer> observers = new ArrayList<>();
 
     private static final Pattern ISBN_PATTERN =
             Pattern.compile("^\\d{3}-\\d-\\d{2}-\\d{6}-\\d$");
 
-    public BookController(Repository<Book, String> bookRepository,
-                        Repository<Author, Long> authorRepository,
+    public BookController(BookStore bookRepository,
+                        LongRepository<Author> authorRepository,
                         Repository<Publisher, String> publisherRepository,
-                        Repository<Narrator, Long> narratorRepository) {
+                        LongRepository<Narrator> narratorRepository) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.publisherRepository = publisherRepository;
@@ -61,8 +73,16 @@ public class BookController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
 
     private static class CommonBookData {
+        BookImportRow.Type type;
         String title;
         List<Author> authors;
         String isbn;
@@ -70,6 +90,12 @@ public class BookController implements Subject {
         String format;
         double value;
         Publisher publisher;
+        // según el tipo
+        int pages;
+        int copies;
+        String hyperlink;
+        Narrator narrator;
+        int duration;
     }
 
 
@@ -83,48 +109,25 @@ public class BookController implements Subject {
                                             String pagesText,
                                             String copiesText) {
 
-        Response<CommonBookData> commonValidation =
-                validateCommonBookData(title, authorIds, isbnText, genre, format,
-                        valueText, publisherNit);
+        Response<CommonBookData> validation =
+                validatePrintedBook(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit, pagesText, copiesText);
 
-        if (!commonValidation.isSuccess()) {
-            return Response.of(commonValidation.getStatus(), commonValidation.getMessage());
+        if (!validation.isSuccess()) {
+            return Response.of(validation.getStatus(), validation.getMessage());
         }
 
-        CommonBookData data = commonValidation.getData();
-
-        int pages;
-        int copies;
-        try {
-            pages = Integer.parseInt(pagesText.trim());
-            copies = Integer.parseInt(copiesText.trim());
-        } catch (Exception e) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "Páginas y número de ejemplares deben ser números enteros.");
-        }
-
-        if (pages <= 0 || copies <= 0) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "Páginas y número de ejemplares deben ser mayores que cero.");
+        // la comprobación del ISBN se repite dentro del alta, que es atómica
+        List<Book> created = bookRepository.createAll(List.of(draft(validation.getData())));
+        if (created.isEmpty()) {
+            return Response.of(StatusCode.CONFLICT,
+                    "Ya existe un libro con ese ISBN.");
         }
-
-        PrintedBook printedBook = new PrintedBook(
-                data.title,
-                new ArrayList<>(data.authors),
-                data.isbn,
-                data.genre,
-                data.format,
-                data.value,
-                data.publisher,
-                pages,
-                copies
-        );
-
-        bookRepository.save(printedBook);
+        Book printedBook = created.get(0);
 
         Book clone = cloneBook(printedBook);
 
-        notifyObservers("book");
+        notifyObservers(ChangeEvent.created("book", printedBook.getIsbn()));
 
         return Response.of(StatusCode.CREATED,
                 "Libro impreso creado correctamente.", clone);
@@ -140,45 +143,25 @@ public class BookController implements Subject {
                                             String publisherNit,
                                             String hyperlink) {
 
-        Response<CommonBookData> commonValidation =
-                validateCommonBookData(title, authorIds, isbnText, genre, format,
-                        valueText, publisherNit);
+        Response<CommonBookData> validation =
+                validateDigitalBook(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit, hyperlink);
 
-        if (!commonValidation.isSuccess()) {
-            return Response.of(commonValidation.getStatus(), commonValidation.getMessage());
+        if (!validation.isSuccess()) {
+            return Response.of(validation.getStatus(), validation.getMessage());
         }
 
-        CommonBookData data = commonValidation.getData();
-
-        DigitalBook digitalBook;
-        if (hyperlink == null || hyperlink.isBlank()) {
-            digitalBook = new DigitalBook(
-                    data.title,
-                    new ArrayList<>(data.authors),
-                    data.isbn,
-                    data.genre,
-                    data.format,
-                    data.value,
-                    data.publisher
-            );
-        } else {
-            digitalBook = new DigitalBook(
-                    data.title,
-                    new ArrayList<>(data.authors),
-                    data.isbn,
-                    data.genre,
-                    data.format,
-                    data.value,
-                    data.publisher,
-                    hyperlink.trim()
-            );
+        // la comprobación del ISBN se repite dentro del alta, que es atómica
+        List<Book> created = bookRepository.createAll(List.of(draft(validation.getData())));
+        if (created.isEmpty()) {
+            return Response.of(StatusCode.CONFLICT,
+                    "Ya existe un libro con ese ISBN.");
         }
-
-        bookRepository.save(digitalBook);
+        Book digitalBook = created.get(0);
 
         Book clone = cloneBook(digitalBook);
 
-        notifyObservers("book");
+        notifyObservers(ChangeEvent.created("book", digitalBook.getIsbn()));
 
         return Response.of(StatusCode.CREATED,
                 "Libro digital creado correctamente.", clone);
@@ -195,189 +178,351 @@ public class BookController implements Subject {
                                         String narratorIdText,
                                         String durationText) {
 
-        Response<CommonBookData> commonValidation =
-                validateCommonBookData(title, authorIds, isbnText, genre, format,
-                        valueText, publisherNit);
+        Response<CommonBookData> validation =
+                validateAudiobook(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit, narratorIdText, durationText);
 
-        if (!commonValidation.isSuccess()) {
-            return Response.of(commonValidation.getStatus(), commonValidation.getMessage());
+        if (!validation.isSuccess()) {
+            return Response.of(validation.getStatus(), validation.getMessage());
         }
 
-        CommonBookData data = commonValidation.getData();
+        // la comprobación del ISBN se repite dentro del alta, que es atómica
+        List<Book> created = bookRepository.createAll(List.of(draft(validation.getData())));
+        if (created.isEmpty()) {
+            return Response.of(StatusCode.CONFLICT,
+                    "Ya existe un libro con ese ISBN.");
+        }
+        Book audiobook = created.get(0);
 
-        // Validar narrador
-        if (narratorIdText == null || narratorIdText.isBlank()) {
+        Book clone = cloneBook(audiobook);
+
+        notifyObservers(ChangeEvent.created("book", audiobook.getIsbn()));
+
+        return Response.of(StatusCode.CREATED,
+                "Audiolibro creado correctamente.", clone);
+    }
+
+    /**
+     * Importación masiva. Las filas se validan en paralelo con las mismas
+     * reglas de los create* (solo lecturas de los repositorios); después,
+     * en orden, se descartan ISBN repetidos dentro del lote y los borradores
+     * válidos se crean en un solo createAll, con un único aviso a los
+     * observadores. Cada fila tiene su respuesta en el resultado.
+     */
+    public Response<BookImportResult> importBooks(List<BookImportRow> rows) {
+        if (rows == null || rows.isEmpty()) {
             return Response.of(StatusCode.BAD_REQUEST,
-                    "El id del narrador es obligatorio.");
+                    "No hay libros para importar.");
+        }
+
+        // construir un libro lo enlaza con sus autores, editorial y narrador,
+        // así que en paralelo solo se valida
+        List<Response<CommonBookData>> validations = IntStream.range(0, rows.size())
+                .parallel()
+                .mapToObj(i -> validateRow(rows.get(i)))
+                .collect(Collectors.toList());
+
+        // null en las filas válidas hasta saber si el alta las aceptó
+        List<Response<String>> results = new ArrayList<>(rows.size());
+        List<BookDraft> drafts = new ArrayList<>();
+        Set<String> batchIsbns = new HashSet<>();
+        for (Response<CommonBookData> validation : validations) {
+            if (!validation.isSuccess()) {
+                results.add(Response.of(validation.getStatus(), validation.getMessage()));
+                continue;
+            }
+            CommonBookData data = validation.getData();
+            if (!batchIsbns.add(data.isbn)) {
+                results.add(Response.of(StatusCode.CONFLICT,
+                        "El ISBN " + data.isbn + " se repite en la importación."));
+                continue;
+            }
+            drafts.add(draft(data));
+            results.add(null);
         }
 
-        long narratorId;
-        try {
-            narratorId = Long.parseLong(narratorIdText.trim());
-        } catch (NumberFormatException e) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "El id del narrador debe ser un número entero.");
+        List<Book> books = drafts.isEmpty() ? List.of() : bookRepository.createAll(drafts);
+        Set<String> createdIsbns = new HashSet<>();
+        List<String> isbns = new ArrayList<>(books.size());
+        for (Book book : books) {
+            createdIsbns.add(book.getIsbn());
+            isbns.add(book.getIsbn());
+        }
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+            String isbn = drafts.get(next++).getIsbn();
+            results.set(i, createdIsbns.contains(isbn)
+                    ? Response.of(StatusCode.CREATED, "Libro creado correctamente.", isbn)
+                    : Response.of(StatusCode.CONFLICT, "Ya existe un libro con ese ISBN."));
+        }
+        if (!books.isEmpty()) {
+            notifyObservers(ChangeEvent.of("book", ChangeEvent.Kind.CREATED, isbns));
         }
 
-        if (narratorId < 0) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "El id del narrador no puede ser negativo.");
+        return Response.of(StatusCode.OK,
+                "Se importaron " + books.size() + " de " + rows.size() + " libros.",
+                new BookImportResult(results, books.size()));
+    }
+
+
+    public Response<List<BookView>> getBooksByType(String type) {
+        // índice por clase concreta; "Todos los Libros" recorre el catálogo
+        List<Book> books;
+        if ("Todos los Libros".equals(type)) {
+            books = bookRepository.findAll();
+        } else {
+            Class<? extends Book> bookClass = typeClass(type);
+            books = bookClass == null ? List.of() : bookRepository.findByType(bookClass);
         }
+        // copias de solo lectura de los datos, sin clonar las entidades
+        return Response.of(StatusCode.OK, "Libros filtrados por tipo.", views(books));
+    }
 
-        String narratorDigits = narratorIdText.trim().replaceFirst("^0+(?!$)", "");
-        if (narratorDigits.length() > 15) {
+    /**
+     * Búsqueda mientras se escribe: libros cuyo ISBN o título empieza por
+     * {@code query}, {@code limit} a partir del resultado {@code offset}.
+     * Una consulta vacía no encuentra nada.
+     */
+    public Response<List<BookView>> searchBooks(String query, int offset, int limit) {
+        if (limit <= 0) {
             return Response.of(StatusCode.BAD_REQUEST,
-                    "El id del narrador no puede tener más de 15 dígitos.");
+                    "El tamaño de página debe ser mayor que cero.");
+        }
+        if (offset < 0) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El desplazamiento no puede ser negativo.");
         }
 
-        Optional<Narrator> narratorOpt = narratorRepository.findById(narratorId);
-        if (narratorOpt.isEmpty()) {
+        // índices de ISBN y de títulos normalizados; cuesta lo que mide la página
+        return Response.of(StatusCode.OK, "Resultados de la búsqueda.",
+                views(bookRepository.findByPrefix(query, offset, limit)));
+    }
+
+    public Response<List<BookView>> getBooksByAuthor(long authorId) {
+        Optional<Author> authorOpt = authorRepository.findById(authorId);
+        if (authorOpt.isEmpty()) {
             return Response.of(StatusCode.NOT_FOUND,
-                    "El narrador con id " + narratorId + " no existe.");
+                    "El autor con id " + authorId + " no existe.");
         }
-        Narrator narrator = narratorOpt.get();
 
-        int duration;
-        try {
-            duration = Integer.parseInt(durationText.trim());
-        } catch (Exception e) {
+        // índice invertido autor -> ISBN; cuesta lo que mide su bibliografía
+        return Response.of(StatusCode.OK,
+                "Libros del autor con id " + authorId + ".",
+                views(bookRepository.findByAuthor(authorId)));
+    }
+
+    public Response<List<BookView>> getBooksByFormat(String format) {
+        if (format == null || format.isBlank()) {
             return Response.of(StatusCode.BAD_REQUEST,
-                    "La duración debe ser un número entero (minutos, por ejemplo).");
+                    "El formato es obligatorio.");
         }
 
-        if (duration <= 0) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "La duración debe ser mayor que cero.");
+        return Response.of(StatusCode.OK,
+                "Libros filtrados por formato.",
+                views(bookRepository.findByFormat(format)));
+    }
+
+    public Response<List<PersonView>> getAuthorsWithMostDifferentPublishers() {
+        List<Author> authors = authorRepository.findAll();
+
+        if (authors.isEmpty()) {
+            return Response.of(StatusCode.OK,
+                    "No hay autores registrados.", new ArrayList<>());
         }
 
-        Audiobook audiobook = new Audiobook(
-                data.title,
-                new ArrayList<>(data.authors),
-                data.isbn,
-                data.genre,
-                data.format,
-                data.value,
-                data.publisher,
-                duration,
-                narrator
-        );
+        // el almacén de libros mantiene el ranking al guardar; si ningún autor
+        // tiene libros todos empatan con cero editoriales
+        TopAuthors top = bookRepository.findTopAuthorsByPublishers();
+        int maxPublishers = top.publishers();
+        List<Author> maxAuthors = maxPublishers == 0
+                ? authors
+                : new ArrayList<>(authorRepository.findAllById(top.authorIds()).values());
 
-        bookRepository.save(audiobook);
+        return Response.of(StatusCode.OK,
+                "Autores con más libros en diferentes editoriales: " + maxPublishers,
+                Views.mapped(maxAuthors, author -> PersonView.ranked(author, maxPublishers)));
+    }
 
-        Book clone = cloneBook(audiobook);
+    private List<BookView> views(List<Book> books) {
+        return Views.mapped(books, BookView::of);
+    }
 
-        notifyObservers("book");
 
-        return Response.of(StatusCode.CREATED,
-                "Audiolibro creado correctamente.", clone);
+    private Response<CommonBookData> validateRow(BookImportRow row) {
+        if (row == null || row.getType() == null) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La fila no indica el tipo de libro.");
+        }
+        switch (row.getType()) {
+            case PRINTED:
+                return validatePrintedBook(row.getTitle(), row.getAuthorIds(), row.getIsbn(),
+                        row.getGenre(), row.getFormat(), row.getValue(), row.getPublisherNit(),
+                        row.getPages(), row.getCopies());
+            case DIGITAL:
+                return validateDigitalBook(row.getTitle(), row.getAuthorIds(), row.getIsbn(),
+                        row.getGenre(), row.getFormat(), row.getValue(), row.getPublisherNit(),
+                        row.getHyperlink());
+            default:
+                return validateAudiobook(row.getTitle(), row.getAuthorIds(), row.getIsbn(),
+                        row.getGenre(), row.getFormat(), row.getValue(), row.getPublisherNit(),
+                        row.getNarratorId(), row.getDuration());
+        }
     }
 
+    private Response<CommonBookData> validatePrintedBook(String title,
+                                                         List<Long> authorIds,
+                                                         String isbnText,
+                                                         String genre,
+                                                         String format,
+                                                         String valueText,
+                                                         String publisherNit,
+                                                         String pagesText,
+                                                         String copiesText) {
 
-    public Response<List<Book>> getBooksByType(String type) {
-        List<Book> all = bookRepository.findAll(); // ya ordenados por ISBN
-        List<Book> result = new ArrayList<>();
+        Response<CommonBookData> commonValidation =
+                validateCommonBookData(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit);
 
-        for (Book book : all) {
-            boolean add = false;
+        if (!commonValidation.isSuccess()) {
+            return commonValidation;
+        }
 
-            if ("Libros Impresos".equals(type) && book instanceof PrintedBook) {
-                add = true;
-            } else if ("Libros Digitales".equals(type) && book instanceof DigitalBook) {
-                add = true;
-            } else if ("Audiolibros".equals(type) && book instanceof Audiobook) {
-                add = true;
-            } else if ("Todos los Libros".equals(type)) {
-                add = true;
-            }
+        CommonBookData data = commonValidation.getData();
 
-            if (add) {
-                result.add(cloneBook(book));
-            }
+        int pages;
+        int copies;
+        try {
+            pages = Integer.parseInt(pagesText.trim());
+            copies = Integer.parseInt(copiesText.trim());
+        } catch (Exception e) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Páginas y número de ejemplares deben ser números enteros.");
         }
 
-        return Response.of(StatusCode.OK, "Libros filtrados por tipo.", result);
+        if (pages <= 0 || copies <= 0) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "Páginas y número de ejemplares deben ser mayores que cero.");
+        }
+
+        data.type = BookImportRow.Type.PRINTED;
+        data.pages = pages;
+        data.copies = copies;
+        return commonValidation;
     }
 
-    public Response<List<Book>> getBooksByAuthor(long authorId) {
-        Optional<Author> authorOpt = authorRepository.findById(authorId);
-        if (authorOpt.isEmpty()) {
-            return Response.of(StatusCode.NOT_FOUND,
-                    "El autor con id " + authorId + " no existe.");
-        }
+    private Response<CommonBookData> validateDigitalBook(String title,
+                                                         List<Long> authorIds,
+                                                         String isbnText,
+                                                         String genre,
+                                                         String format,
+                                                         String valueText,
+                                                         String publisherNit,
+                                                         String hyperlink) {
 
-        List<Book> all = bookRepository.findAll();
-        List<Book> result = new ArrayList<>();
+        Response<CommonBookData> commonValidation =
+                validateCommonBookData(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit);
 
-        for (Book book : all) {
-            for (Author author : book.getAuthors()) {
-                if (author.getId() == authorId) {
-                    result.add(cloneBook(book));
-                    break;
-                }
-            }
+        if (!commonValidation.isSuccess()) {
+            return commonValidation;
         }
 
-        return Response.of(StatusCode.OK,
-                "Libros del autor con id " + authorId + ".", result);
+        CommonBookData data = commonValidation.getData();
+        data.type = BookImportRow.Type.DIGITAL;
+        data.hyperlink = hyperlink == null || hyperlink.isBlank() ? null : hyperlink.trim();
+        return commonValidation;
     }
 
-    public Response<List<Book>> getBooksByFormat(String format) {
-        if (format == null || format.isBlank()) {
-            return Response.of(StatusCode.BAD_REQUEST,
-                    "El formato es obligatorio.");
-        }
+    private Response<CommonBookData> validateAudiobook(String title,
+                                                       List<Long> authorIds,
+                                                       String isbnText,
+                                                       String genre,
+                                                       String format,
+                                                       String valueText,
+                                                       String publisherNit,
+                                                       String narratorIdText,
+                                                       String durationText) {
 
-        List<Book> all = bookRepository.findAll();
-        List<Book> result = new ArrayList<>();
+        Response<CommonBookData> commonValidation =
+                validateCommonBookData(title, authorIds, isbnText, genre, format,
+                        valueText, publisherNit);
 
-        for (Book book : all) {
-            if (format.equals(book.getFormat())) {
-                result.add(cloneBook(book));
-            }
+        if (!commonValidation.isSuccess()) {
+            return commonValidation;
         }
 
-        return Response.of(StatusCode.OK,
-                "Libros filtrados por formato.", result);
-    }
+        CommonBookData data = commonValidation.getData();
 
-    public Response<List<Author>> getAuthorsWithMostDifferentPublishers() {
-        List<Author> authors = authorRepository.findAll();
+        // Validar narrador
+        if (narratorIdText == null || narratorIdText.isBlank()) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El id del narrador es obligatorio.");
+        }
 
-        if (authors.isEmpty()) {
-            return Response.of(StatusCode.OK,
-                    "No hay autores registrados.", new ArrayList<>());
+        long narratorId;
+        try {
+            narratorId = Long.parseLong(narratorIdText.trim());
+        } catch (NumberFormatException e) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El id del narrador debe ser un número entero.");
         }
 
-        int maxPublishers = -1;
-        List<Author> maxAuthors = new ArrayList<>();
+        if (narratorId < 0) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El id del narrador no puede ser negativo.");
+        }
 
-        for (Author author : authors) {
-            int qty = author.getPublisherQuantity();
-            if (qty > maxPublishers) {
-                maxPublishers = qty;
-                maxAuthors.clear();
-                maxAuthors.add(author);
-            } else if (qty == maxPublishers) {
-                maxAuthors.add(author);
-            }
+        String narratorDigits = narratorIdText.trim().replaceFirst("^0+(?!$)", "");
+        if (narratorDigits.length() > 15) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "El id del narrador no puede tener más de 15 dígitos.");
+        }
+
+        Optional<Narrator> narratorOpt = narratorRepository.findById(narratorId);
+        if (narratorOpt.isEmpty()) {
+            return Response.of(StatusCode.NOT_FOUND,
+                    "El narrador con id " + narratorId + " no existe.");
         }
 
-        maxAuthors.sort(Comparator.comparingLong(Author::getId));
+        int duration;
+        try {
+            duration = Integer.parseInt(durationText.trim());
+        } catch (Exception e) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La duración debe ser un número entero (minutos, por ejemplo).");
+        }
 
-        List<Author> clones = new ArrayList<>();
-        for (Author author : maxAuthors) {
-            clones.add(new Author(
-                    author.getId(),
-                    author.getFirstname(),
-                    author.getLastname()
-            ));
+        if (duration <= 0) {
+            return Response.of(StatusCode.BAD_REQUEST,
+                    "La duración debe ser mayor que cero.");
         }
 
-        return Response.of(StatusCode.OK,
-                "Autores con más libros en diferentes editoriales: " + maxPublishers,
-                clones);
+        data.type = BookImportRow.Type.AUDIOBOOK;
+        data.narrator = narratorOpt.get();
+        data.duration = duration;
+        return commonValidation;
     }
 
+    /**
+     * Borrador del libro validado. El repositorio lo construye (y con eso lo
+     * enlaza con autores, editorial y narrador) solo después de registrarlo.
+     */
+    private static BookDraft draft(CommonBookData data) {
+        switch (data.type) {
+            case PRINTED:
+                return BookDraft.printed(data.title, data.authors, data.isbn, data.genre,
+                        data.format, data.value, data.publisher, data.pages, data.copies);
+            case DIGITAL:
+                return BookDraft.digital(data.title, data.authors, data.isbn, data.genre,
+                        data.format, data.value, data.publisher, data.hyperlink);
+            default:
+                return BookDraft.audiobook(data.title, data.authors, data.isbn, data.genre,
+                        data.format, data.value, data.publisher, data.duration, data.narrator);
+        }
+    }
 
     private Response<CommonBookData> validateCommonBookData(String title,
                                                             List<Long> authorIds,
@@ -397,23 +542,25 @@ public class BookController implements Subject {
                     "Debe seleccionar al menos un autor.");
         }
 
+        // Se resuelven todos los autores con una sola consulta al repositorio
+        Map<Long, Author> foundAuthors = authorRepository.findAllById(authorIds);
+
         List<Author> authors = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
         for (Long id : authorIds) {
             if (id == null) continue;
 
-            for (Author existing : authors) {
-                if (existing.getId() == id) {
-                    return Response.of(StatusCode.BAD_REQUEST,
-                            "No se puede repetir un autor en el mismo libro.");
-                }
+            if (!seenIds.add(id)) {
+                return Response.of(StatusCode.BAD_REQUEST,
+                        "No se puede repetir un autor en el mismo libro.");
             }
 
-            Optional<Author> authorOpt = authorRepository.findById(id);
-            if (authorOpt.isEmpty()) {
+            Author author = foundAuthors.get(id);
+            if (author == null) {
                 return Response.of(StatusCode.NOT_FOUND,
                         "El autor con id " + id + " no existe.");
             }
-            authors.add(authorOpt.get());
+            authors.add(author);
         }
 
         if (isbnText == null || isbnText.isBlank()) {
@@ -487,6 +634,19 @@ public class BookController implements Subject {
         return Response.of(StatusCode.OK, "Datos del libro válidos.", data);
     }
 
+    private static Class<? extends Book> typeClass(String type) {
+        if ("Libros Impresos".equals(type)) {
+            return PrintedBook.class;
+        }
+        if ("Libros Digitales".equals(type)) {
+            return DigitalBook.class;
+        }
+        if ("Audiolibros".equals(type)) {
+            return Audiobook.class;
+        }
+        return null;
+    }
+
     private Book cloneBook(Book book) {
         // Clonar autores
         List<Author> authorClones = new ArrayList<>();
@@ -0,0 +1,31 @@
+package megaferia.controller;
+
+import java.util.List;
+import megaferia.response.Response;
+
+/**
+ * Resultado de una importación masiva: una respuesta por fila, en el mismo
+ * orden de entrada. Las filas exitosas traen el ISBN del libro creado.
+ */
+public class BookImportResult {
+
+    private final List<Response<String>> rows;
+    private final int createdCount;
+
+    BookImportResult(List<Response<String>> rows, int createdCount) {
+        this.rows = rows;
+        this.createdCount = createdCount;
+    }
+
+    public List<Response<String>> getRows() {
+        return rows;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public int getRejectedCount() {
+        return rows.size() - createdCount;
+    }
+}
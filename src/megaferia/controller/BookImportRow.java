@@ -0,0 +1,116 @@
+package megaferia.controller;
+
+import java.util.List;
+
+/**
+ * Fila de una importación masiva de libros. Los campos llegan como texto,
+ * igual que en los create* de {@link BookController}, y se validan con las
+ * mismas reglas.
+ */
+public class BookImportRow {
+
+    public enum Type {
+        PRINTED,
+        DIGITAL,
+        AUDIOBOOK
+    }
+
+    private final Type type;
+    private final String title;
+    private final List<Long> authorIds;
+    private final String isbn;
+    private final String genre;
+    private final String format;
+    private final String value;
+    private final String publisherNit;
+    // impreso: páginas y ejemplares; digital: hipervínculo; audiolibro: narrador y duración
+    private final String first;
+    private final String second;
+
+    private BookImportRow(Type type, String title, List<Long> authorIds, String isbn, String genre,
+                          String format, String value, String publisherNit, String first, String second) {
+        this.type = type;
+        this.title = title;
+        this.authorIds = authorIds;
+        this.isbn = isbn;
+        this.genre = genre;
+        this.format = format;
+        this.value = value;
+        this.publisherNit = publisherNit;
+        this.first = first;
+        this.second = second;
+    }
+
+    public static BookImportRow printed(String title, List<Long> authorIds, String isbn, String genre,
+                                        String format, String value, String publisherNit,
+                                        String pages, String copies) {
+        return new BookImportRow(Type.PRINTED, title, authorIds, isbn, genre, format, value,
+                publisherNit, pages, copies);
+    }
+
+    public static BookImportRow digital(String title, List<Long> authorIds, String isbn, String genre,
+                                        String format, String value, String publisherNit,
+                                        String hyperlink) {
+        return new BookImportRow(Type.DIGITAL, title, authorIds, isbn, genre, format, value,
+                publisherNit, hyperlink, null);
+    }
+
+    public static BookImportRow audiobook(String title, List<Long> authorIds, String isbn, String genre,
+                                          String format, String value, String publisherNit,
+                                          String narratorId, String duration) {
+        return new BookImportRow(Type.AUDIOBOOK, title, authorIds, isbn, genre, format, value,
+                publisherNit, narratorId, duration);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<Long> getAuthorIds() {
+        return authorIds;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getPublisherNit() {
+        return publisherNit;
+    }
+
+    public String getPages() {
+        return type == Type.PRINTED ? first : null;
+    }
+
+    public String getCopies() {
+        return type == Type.PRINTED ? second : null;
+    }
+
+    public String getHyperlink() {
+        return type == Type.DIGITAL ? first : null;
+    }
+
+    public String getNarratorId() {
+        return type == Type.AUDIOBOOK ? first : null;
+    }
+
+    public String getDuration() {
+        return type == Type.AUDIOBOOK ? second : null;
+    }
+}
@@ -3,26 +3,32 @@ package megaferia.controller;
 import core.Author;
 import core.Manager;
 import core.Narrator;
+import core.Person;
+import megaferia.observer.ChangeEvent;
 import megaferia.observer.Observer;
 import megaferia.observer.Subject;
 import megaferia.response.Response;
 import megaferia.response.StatusCode;
-import megaferia.storage.Repository;
+import megaferia.storage.LongRepository;
+import megaferia.view.PersonView;
+import megaferia.view.Views;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class PersonController implements Subject {
 
-    private final Repository<Author, Long> authorRepository;
-    private final Repository<Manager, Long> managerRepository;
-    private final Repository<Narrator, Long> narratorRepository;
+    private final LongRepository<Author> authorRepository;
+    private final LongRepository<Manager> managerRepository;
+    private final LongRepository<Narrator> narratorRepository;
     private final List<Observer> observers = new ArrayList<>();
+    private final Object registration = new Object();
 
-    public PersonController(Repository<Author, Long> authorRepository,
-                            Repository<Manager, Long> managerRepository,
-                            Repository<Narrator, Long> narratorRepository) {
+    public PersonController(LongRepository<Author> authorRepository,
+                            LongRepository<Manager> managerRepository,
+                            LongRepository<Narrator> narratorRepository) {
         this.authorRepository = authorRepository;
         this.managerRepository = managerRepository;
         this.narratorRepository = narratorRepository;
@@ -47,6 +53,13 @@ public class PersonController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
 
     public Response<Author> createAuthor(String idText, String firstname, String lastname) {
         Response<Long> idValidation = validatePersonId(idText);
@@ -60,16 +73,14 @@ public class PersonController implements Subject {
             return Response.of(StatusCode.BAD_REQUEST, "El nombre y apellido del autor son obligatorios.");
         }
 
-        if (existsPersonId(id)) {
+        Author author = new Author(id, firstname.trim(), lastname.trim());
+        if (!register(author, authorRepository)) {
             return Response.of(StatusCode.CONFLICT, "Ya existe una persona con ese id.");
         }
 
-        Author author = new Author(id, firstname.trim(), lastname.trim());
-        authorRepository.save(author);
-
         Author clone = new Author(author.getId(), author.getFirstname(), author.getLastname());
 
-        notifyObservers("author");
+        notifyObservers(ChangeEvent.created("author", author.getId()));
 
         return Response.of(StatusCode.CREATED, "Autor creado correctamente.", clone);
     }
@@ -87,16 +98,14 @@ public class PersonController implements Subject {
             return Response.of(StatusCode.BAD_REQUEST, "El nombre y apellido del gerente son obligatorios.");
         }
 
-        if (existsPersonId(id)) {
+        Manager manager = new Manager(id, firstname.trim(), lastname.trim());
+        if (!register(manager, managerRepository)) {
             return Response.of(StatusCode.CONFLICT, "Ya existe una persona con ese id.");
         }
 
-        Manager manager = new Manager(id, firstname.trim(), lastname.trim());
-        managerRepository.save(manager);
-
         Manager clone = new Manager(manager.getId(), manager.getFirstname(), manager.getLastname());
 
-        notifyObservers("manager");
+        notifyObservers(ChangeEvent.created("manager", manager.getId()));
 
         return Response.of(StatusCode.CREATED, "Gerente creado correctamente.", clone);
     }
@@ -114,45 +123,46 @@ public class PersonController implements Subject {
             return Response.of(StatusCode.BAD_REQUEST, "El nombre y apellido del narrador son obligatorios.");
         }
 
-        if (existsPersonId(id)) {
+        Narrator narrator = new Narrator(id, firstname.trim(), lastname.trim());
+        if (!register(narrator, narratorRepository)) {
             return Response.of(StatusCode.CONFLICT, "Ya existe una persona con ese id.");
         }
 
-        Narrator narrator = new Narrator(id, firstname.trim(), lastname.trim());
-        narratorRepository.save(narrator);
-
         Narrator clone = new Narrator(narrator.getId(), narrator.getFirstname(), narrator.getLastname());
 
-        notifyObservers("narrator");
+        notifyObservers(ChangeEvent.created("narrator", narrator.getId()));
 
         return Response.of(StatusCode.CREATED, "Narrador creado correctamente.", clone);
     }
 
-    public Response<List<Author>> getAllAuthors() {
-        List<Author> authors = authorRepository.findAll();
-        List<Author> clones = new ArrayList<>();
-        for (Author author : authors) {
-            clones.add(new Author(author.getId(), author.getFirstname(), author.getLastname()));
-        }
-        return Response.of(StatusCode.OK, "Listado de autores", clones);
+    public Response<List<PersonView>> getAllAuthors() {
+        return Response.of(StatusCode.OK, "Listado de autores",
+                Views.mapped(authorRepository.findAll(), PersonView::of));
     }
 
-    public Response<List<Manager>> getAllManagers() {
-        List<Manager> managers = managerRepository.findAll();
-        List<Manager> clones = new ArrayList<>();
-        for (Manager manager : managers) {
-            clones.add(new Manager(manager.getId(), manager.getFirstname(), manager.getLastname()));
-        }
-        return Response.of(StatusCode.OK, "Listado de gerentes", clones);
+    public Response<List<PersonView>> getAllManagers() {
+        return Response.of(StatusCode.OK, "Listado de gerentes",
+                Views.mapped(managerRepository.findAll(), PersonView::of));
     }
 
-    public Response<List<Narrator>> getAllNarrators() {
-        List<Narrator> narrators = narratorRepository.findAll();
-        List<Narrator> clones = new ArrayList<>();
-        for (Narrator narrator : narrators) {
-            clones.add(new Narrator(narrator.getId(), narrator.getFirstname(), narrator.getLastname()));
-        }
-        return Response.of(StatusCode.OK, "Listado de narradores", clones);
+    public Response<List<PersonView>> getAllNarrators() {
+        return Response.of(StatusCode.OK, "Listado de narradores",
+                Views.mapped(narratorRepository.findAll(), PersonView::of));
+    }
+
+    public Response<List<PersonView>> getAuthorsById(Collection<Long> ids) {
+        return Response.of(StatusCode.OK, "Listado de autores",
+                Views.mapped(authorRepository.findAllById(ids), ids, PersonView::of));
+    }
+
+    public Response<List<PersonView>> getManagersById(Collection<Long> ids) {
+        return Response.of(StatusCode.OK, "Listado de gerentes",
+                Views.mapped(managerRepository.findAllById(ids), ids, PersonView::of));
+    }
+
+    public Response<List<PersonView>> getNarratorsById(Collection<Long> ids) {
+        return Response.of(StatusCode.OK, "Listado de narradores",
+                Views.mapped(narratorRepository.findAllById(ids), ids, PersonView::of));
     }
 
     private Response<Long> validatePersonId(String idText) {
@@ -181,6 +191,18 @@ public class PersonController implements Subject {
     }
 
 
+    /**
+     * Guarda la persona si su id no está en ninguno de los tres repositorios.
+     * El id es único entre los tres tipos, así que la comprobación y el alta
+     * van bajo el candado del controlador; saveIfAbsent cubre además a
+     * cualquier otro escritor del mismo repositorio.
+     */
+    private <T extends Person> boolean register(T person, LongRepository<T> repository) {
+        synchronized (registration) {
+            return !existsPersonId(person.getId()) && repository.saveIfAbsent(person);
+        }
+    }
+
     private boolean existsPersonId(long id) {
         Optional<Author> a = authorRepository.findById(id);
         if (a.isPresent()) return true;
@@ -2,13 +2,18 @@ package megaferia.controller;
 
 import core.Manager;
 import core.Publisher;
+import megaferia.observer.ChangeEvent;
 import megaferia.observer.Observer;
 import megaferia.observer.Subject;
 import megaferia.response.Response;
 import megaferia.response.StatusCode;
+import megaferia.storage.LongRepository;
 import megaferia.storage.Repository;
+import megaferia.view.PublisherView;
+import megaferia.view.Views;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -16,14 +21,14 @@ import java.util.regex.Pattern;
 public class PublisherController implements Subject {
 
     private final Repository<Publisher, String> publisherRepository;
-    private final Repository<Manager, Long> managerRepository;
+    private final LongRepository<Manager> managerRepository;
     private final List<Observer> observers = new ArrayList<>();
 
     private static final Pattern NIT_PATTERN =
             Pattern.compile("^\\d{3}\\.\\d{3}\\.\\d{3}-\\d$");
 
     public PublisherController(Repository<Publisher, String> publisherRepository,
-                            Repository<Manager, Long> managerRepository) {
+                            LongRepository<Manager> managerRepository) {
         this.publisherRepository = publisherRepository;
         this.managerRepository = managerRepository;
     }
@@ -48,6 +53,13 @@ public class PublisherController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Publisher> createPublisher(String nitText,
                                             String name,
                                             String address,
@@ -106,14 +118,20 @@ public class PublisherController implements Subject {
 
         Manager manager = managerOpt.get();
 
-        // Crear y guardar la editorial
+        // Crear y guardar la editorial. El constructor ya apunta el gerente a
+        // la editorial nueva: si otra alta ganó el NIT se le devuelve la suya
+        Publisher previous = manager.getPublisher();
         Publisher publisher = new Publisher(
                 nit,
                 name.trim(),
                 address.trim(),
                 manager
         );
-        publisherRepository.save(publisher);
+        if (!publisherRepository.saveIfAbsent(publisher)) {
+            manager.setPublisher(previous);
+            return Response.of(StatusCode.CONFLICT,
+                    "Ya existe una editorial con ese NIT.");
+        }
 
         // Clon "seguro": clonamos también el manager para no exponer el verdadero
         Manager managerClone = new Manager(
@@ -128,32 +146,19 @@ public class PublisherController implements Subject {
                 managerClone
         );
 
-        notifyObservers("publisher");
+        notifyObservers(ChangeEvent.created("publisher", publisher.getNit()));
 
         return Response.of(StatusCode.CREATED,
                 "Editorial creada correctamente.", clone);
     }
 
-    public Response<List<Publisher>> getAllPublishers() {
-        List<Publisher> publishers = publisherRepository.findAll();
-        List<Publisher> clones = new ArrayList<>();
-
-        for (Publisher publisher : publishers) {
-            Manager manager = publisher.getManager();
-            Manager managerClone = new Manager(
-                    manager.getId(),
-                    manager.getFirstname(),
-                    manager.getLastname()
-            );
-            Publisher clone = new Publisher(
-                    publisher.getNit(),
-                    publisher.getName(),
-                    publisher.getAddress(),
-                    managerClone
-            );
-            clones.add(clone);
-        }
+    public Response<List<PublisherView>> getAllPublishers() {
+        return Response.of(StatusCode.OK, "Listado de editoriales.",
+                Views.mapped(publisherRepository.findAll(), PublisherView::of));
+    }
 
-        return Response.of(StatusCode.OK, "Listado de editoriales.", clones);
+    public Response<List<PublisherView>> getPublishersById(Collection<String> nits) {
+        return Response.of(StatusCode.OK, "Listado de editoriales.",
+                Views.mapped(publisherRepository.findAllById(nits), nits, PublisherView::of));
     }
 }
@@ -2,23 +2,28 @@ package megaferia.controller;
 
 import core.Stand;
 import core.Publisher;
+import megaferia.observer.ChangeEvent;
 import megaferia.observer.Observer;
 import megaferia.observer.Subject;
 import megaferia.response.Response;
 import megaferia.response.StatusCode;
 import megaferia.storage.Repository;
+import megaferia.storage.StandStore;
+import megaferia.view.StandView;
+import megaferia.view.Views;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 public class StandController implements Subject {
 
-    private final Repository<Stand, Long> standRepository;
+    private final StandStore standRepository;
     private final Repository<Publisher, String> publisherRepository;
     private final List<Observer> observers = new ArrayList<>();
 
-    public StandController(Repository<Stand, Long> standRepository,
+    public StandController(StandStore standRepository,
         Repository<Publisher, String> publisherRepository) {
         this.standRepository = standRepository;
         this.publisherRepository = publisherRepository;
@@ -43,6 +48,13 @@ public class StandController implements Subject {
         }
     }
 
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        for (Observer observer : observers) {
+            observer.onChange(event);
+        }
+    }
+
     public Response<Stand> createStand(String idText, String priceText) {
         if (idText == null || idText.isBlank() || priceText == null || priceText.isBlank()) {
             return Response.of(StatusCode.BAD_REQUEST, "El id y el precio del stand son obligatorios.");
@@ -76,28 +88,28 @@ public class StandController implements Subject {
             return Response.of(StatusCode.BAD_REQUEST, "El precio del stand debe ser mayor que cero.");
         }
 
-        Optional<Stand> existing = standRepository.findById(id);
-        if (existing.isPresent()) {
+        // comprobación y alta en una sola operación
+        Stand stand = new Stand(id, price);
+        if (!standRepository.saveIfAbsent(stand)) {
             return Response.of(StatusCode.CONFLICT, "Ya existe un stand con ese id.");
         }
 
-        Stand stand = new Stand(id, price);
-        standRepository.save(stand);
-
         Stand clone = new Stand(stand.getId(), stand.getPrice());
 
-        notifyObservers("stand");
+        notifyObservers(ChangeEvent.created("stand", stand.getId()));
 
         return Response.of(StatusCode.CREATED, "Stand creado correctamente.", clone);
     }
 
-    public Response<List<Stand>> getAllStands() {
-        List<Stand> stands = standRepository.findAll();
-        List<Stand> clones = new ArrayList<>();
-        for (Stand stand : stands) {
-            clones.add(new Stand(stand.getId(), stand.getPrice()));
-        }
-        return Response.of(StatusCode.OK, "Listado de stands", clones);
+    public Response<List<StandView>> getAllStands() {
+        return Response.of(StatusCode.OK, "Listado de stands",
+                Views.mapped(standRepository.findAll(), StandView::of));
+    }
+
+    /** Stands con esos ids, en el mismo orden; los que no existen se omiten. */
+    public Response<List<StandView>> getStandsById(Collection<Long> ids) {
+        return Response.of(StatusCode.OK, "Listado de stands",
+                Views.mapped(standRepository.findAllById(ids), ids, StandView::of));
     }
 
 
@@ -110,25 +122,32 @@ public class StandController implements Subject {
         }
 
 
+        // Una consulta por lote para los stands y otra para las editoriales
+        Map<Long, Stand> foundStands = standRepository.findAllById(standIds);
         List<Stand> stands = new ArrayList<>();
         for (Long id : standIds) {
             if (id == null) continue;
-            Optional<Stand> optionalStand = standRepository.findById(id);
-            if (optionalStand.isEmpty()) {
+            Stand stand = foundStands.get(id);
+            if (stand == null) {
                 return Response.of(StatusCode.NOT_FOUND, "No existe el stand con id " + id + ".");
             }
-            stands.add(optionalStand.get());
+            stands.add(stand);
         }
 
 
-        List<Publisher> publishers = new ArrayList<>();
+        List<String> trimmedNits = new ArrayList<>();
         for (String nit : publisherNits) {
             if (nit == null || nit.isBlank()) continue;
-            Optional<Publisher> optionalPublisher = publisherRepository.findById(nit.trim());
-            if (optionalPublisher.isEmpty()) {
+            trimmedNits.add(nit.trim());
+        }
+        Map<String, Publisher> foundPublishers = publisherRepository.findAllById(trimmedNits);
+        List<Publisher> publishers = new ArrayList<>();
+        for (String nit : trimmedNits) {
+            Publisher publisher = foundPublishers.get(nit);
+            if (publisher == null) {
                 return Response.of(StatusCode.NOT_FOUND, "No existe la editorial con NIT " + nit + ".");
             }
-            publishers.add(optionalPublisher.get());
+            publishers.add(publisher);
         }
 
         // Repetidos dentro de la selección
@@ -138,17 +157,16 @@ public class StandController implements Subject {
         if (hasDuplicates(publisherNits)) {
             return Response.of(StatusCode.BAD_REQUEST, "No puede haber editoriales repetidas en la compra.");
         }
+        // El repositorio enlaza stands y editoriales y registra la compra en
+        // un solo lote, para que sea persistente
+        standRepository.link(stands, publishers);
+
+        List<Long> boughtIds = new ArrayList<>(stands.size());
         for (Stand stand : stands) {
-            for (Publisher publisher : publishers) {
-                if (!stand.getPublishers().contains(publisher)) {
-                    stand.addPublisher(publisher);
-                }
-                publisher.addStand(stand);
-            }
+            boughtIds.add(stand.getId());
         }
-
-        notifyObservers("stand");
-        notifyObservers("publisher");
+        notifyObservers(ChangeEvent.linked("stand", boughtIds));
+        notifyObservers(ChangeEvent.linked("publisher", foundPublishers.keySet()));
 
         return Response.of(StatusCode.OK, "Compra de stands registrada correctamente.");
     }
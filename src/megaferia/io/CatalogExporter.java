@@ -0,0 +1,235 @@
+package megaferia.io;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import core.Stand;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import megaferia.storage.Repository;
+
+/**
+ * Exporta listados a CSV o JSON recorriendo los repositorios con
+ * {@link Repository#findPage} y escribiendo cada fila directamente en el
+ * flujo de salida. No se copia el catálogo ni se clonan entidades: la
+ * memoria usada es la de una página, sin importar cuántas filas haya.
+ * Cada método devuelve la cantidad de filas escritas y no cierra el flujo.
+ */
+public class CatalogExporter {
+
+    private static final int PAGE = 1024;
+    private static final int BUFFER = 64 * 1024;
+
+    private final Repository<Book, String> bookRepository;
+    private final Repository<Stand, Long> standRepository;
+    private final Repository<Author, Long> authorRepository;
+    private final Repository<Manager, Long> managerRepository;
+    private final Repository<Narrator, Long> narratorRepository;
+
+    public CatalogExporter(Repository<Book, String> bookRepository,
+                           Repository<Stand, Long> standRepository,
+                           Repository<Author, Long> authorRepository,
+                           Repository<Manager, Long> managerRepository,
+                           Repository<Narrator, Long> narratorRepository) {
+        this.bookRepository = bookRepository;
+        this.standRepository = standRepository;
+        this.authorRepository = authorRepository;
+        this.managerRepository = managerRepository;
+        this.narratorRepository = narratorRepository;
+    }
+
+    /**
+     * Libros en orden de ISBN, con las mismas columnas que lee
+     * {@link CsvImporter}: los ids de autores van separados por {@code ;} y
+     * las dos últimas columnas dependen del tipo (páginas y ejemplares,
+     * hipervínculo o id del narrador y duración).
+     */
+    public long exportBooks(OutputStream output, ExportFormat format) throws IOException {
+        Writer out = writer(output);
+        TableWriter table = TableWriter.of(format, out, "tipo", "titulo", "autores", "isbn", "genero",
+                "formato", "valor", "editorial", "detalle1", "detalle2");
+        StringBuilder authorIds = new StringBuilder();
+        String after = null;
+        List<Book> page;
+        do {
+            page = bookRepository.findPage(after, PAGE);
+            for (Book book : page) {
+                authorIds.setLength(0);
+                for (Author author : book.getAuthors()) {
+                    if (authorIds.length() > 0) {
+                        authorIds.append(';');
+                    }
+                    authorIds.append(author.getId());
+                }
+                table.text(typeName(book));
+                table.text(book.getTitle());
+                table.text(authorIds.toString());
+                table.text(book.getIsbn());
+                table.text(book.getGenre());
+                table.text(book.getFormat());
+                table.number(book.getValue());
+                table.text(book.getPublisher().getNit());
+                if (book instanceof PrintedBook printed) {
+                    table.integer(printed.getPages());
+                    table.integer(printed.getCopies());
+                } else if (book instanceof Audiobook audiobook) {
+                    table.integer(audiobook.getNarrador().getId());
+                    table.integer(audiobook.getDuration());
+                } else {
+                    DigitalBook digital = (DigitalBook) book;
+                    if (digital.hasHyperlink()) {
+                        table.text(digital.getHyperlink());
+                    } else {
+                        table.empty();
+                    }
+                    table.empty();
+                }
+            }
+            after = lastKey(page, Book::getIsbn, after);
+        } while (page.size() == PAGE);
+        table.end();
+        return table.getRows();
+    }
+
+    /**
+     * Stands en orden de id con los NIT y nombres de sus editoriales
+     * separados por {@code ;}. Dentro de cada elemento, {@code ;} y la barra
+     * invertida se escapan anteponiendo una barra invertida.
+     */
+    public long exportStands(OutputStream output, ExportFormat format) throws IOException {
+        Writer out = writer(output);
+        TableWriter table = TableWriter.of(format, out, "id", "precio", "editoriales", "nits", "nombres");
+        StringBuilder nits = new StringBuilder();
+        StringBuilder names = new StringBuilder();
+        Long after = null;
+        List<Stand> page;
+        do {
+            page = standRepository.findPage(after, PAGE);
+            for (Stand stand : page) {
+                nits.setLength(0);
+                names.setLength(0);
+                for (Publisher publisher : stand.getPublishers()) {
+                    if (nits.length() > 0) {
+                        nits.append(';');
+                        names.append(';');
+                    }
+                    appendEscaped(nits, publisher.getNit());
+                    appendEscaped(names, publisher.getName());
+                }
+                table.integer(stand.getId());
+                table.number(stand.getPrice());
+                table.integer(stand.getPublisherQuantity());
+                table.text(nits.toString());
+                table.text(names.toString());
+            }
+            after = lastKey(page, Stand::getId, after);
+        } while (page.size() == PAGE);
+        table.end();
+        return table.getRows();
+    }
+
+    /**
+     * Autores, gerentes y narradores, cada grupo en orden de id. Para los
+     * autores se cuentan sus libros y sus editoriales distintas; para los
+     * narradores sus libros; un gerente tiene una editorial o ninguna.
+     */
+    public long exportPeople(OutputStream output, ExportFormat format) throws IOException {
+        Writer out = writer(output);
+        TableWriter table = TableWriter.of(format, out, "tipo", "id", "nombre", "apellido", "libros",
+                "editoriales");
+        Set<String> publishers = new HashSet<>();
+        Long after = null;
+        List<Author> authors;
+        do {
+            authors = authorRepository.findPage(after, PAGE);
+            for (Author author : authors) {
+                // una pasada con un conjunto reutilizado en vez de getPublisherQuantity, que es cuadrático
+                publishers.clear();
+                for (Book book : author.getBooks()) {
+                    publishers.add(book.getPublisher().getNit());
+                }
+                person(table, "autor", author.getId(), author.getFirstname(), author.getLastname());
+                table.integer(author.getBookQuantity());
+                table.integer(publishers.size());
+            }
+            after = lastKey(authors, Author::getId, after);
+        } while (authors.size() == PAGE);
+
+        after = null;
+        List<Manager> managers;
+        do {
+            managers = managerRepository.findPage(after, PAGE);
+            for (Manager manager : managers) {
+                person(table, "gerente", manager.getId(), manager.getFirstname(), manager.getLastname());
+                table.empty();
+                table.integer(manager.getPublisher() == null ? 0 : 1);
+            }
+            after = lastKey(managers, Manager::getId, after);
+        } while (managers.size() == PAGE);
+
+        after = null;
+        List<Narrator> narrators;
+        do {
+            narrators = narratorRepository.findPage(after, PAGE);
+            for (Narrator narrator : narrators) {
+                person(table, "narrador", narrator.getId(), narrator.getFirstname(), narrator.getLastname());
+                table.integer(narrator.getBookQuantity());
+                table.empty();
+            }
+            after = lastKey(narrators, Narrator::getId, after);
+        } while (narrators.size() == PAGE);
+
+        table.end();
+        return table.getRows();
+    }
+
+    private static void person(TableWriter table, String type, long id, String firstname, String lastname)
+            throws IOException {
+        table.text(type);
+        table.integer(id);
+        table.text(firstname);
+        table.text(lastname);
+    }
+
+    /** Agrega un elemento de una lista separada por {@code ;}. */
+    private static void appendEscaped(StringBuilder list, String item) {
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (c == ';' || c == '\\') {
+                list.append('\\');
+            }
+            list.append(c);
+        }
+    }
+
+    private static String typeName(Book book) {
+        if (book instanceof PrintedBook) {
+            return "impreso";
+        }
+        if (book instanceof DigitalBook) {
+            return "digital";
+        }
+        return "audiolibro";
+    }
+
+    private static <T, ID> ID lastKey(List<T> page, Function<T, ID> keyOf, ID previous) {
+        return page.isEmpty() ? previous : keyOf.apply(page.get(page.size() - 1));
+    }
+
+    private static Writer writer(OutputStream output) {
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER);
+    }
+}
@@ -0,0 +1,248 @@
+package megaferia.io;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import megaferia.controller.BookController;
+import megaferia.controller.BookImportResult;
+import megaferia.controller.BookImportRow;
+import megaferia.controller.PersonController;
+import megaferia.controller.PublisherController;
+import megaferia.controller.StandController;
+import megaferia.response.Response;
+import megaferia.response.StatusCode;
+
+/**
+ * Importa archivos CSV por streaming pasando cada fila por los controladores,
+ * así se aplican las mismas validaciones que en la ventana. Los libros se
+ * envían en lotes de {@value #BOOK_BATCH} a {@link BookController#importBooks}
+ * y el resto de entidades fila por fila; en memoria solo queda el lote en
+ * curso.
+ *
+ * <p>Columnas esperadas (la primera fila puede ser un encabezado):
+ * <ul>
+ *   <li>stands: id, precio</li>
+ *   <li>autores, gerentes, narradores: id, nombre, apellido</li>
+ *   <li>editoriales: NIT, nombre, dirección, id del gerente</li>
+ *   <li>libros: tipo (impreso, digital, audiolibro), título, ids de autores
+ *       separados por {@code ;}, ISBN, género, formato, valor, NIT de la
+ *       editorial y luego páginas y ejemplares, hipervínculo (opcional) o
+ *       id del narrador y duración, según el tipo</li>
+ * </ul>
+ */
+public class CsvImporter {
+
+    public enum Entity {
+        STANDS,
+        AUTHORS,
+        MANAGERS,
+        NARRATORS,
+        PUBLISHERS,
+        BOOKS
+    }
+
+    static final int BOOK_BATCH = 10_000;
+    static final int MAX_ERRORS = 100;
+    // cada cuántas filas se mide el heap usado
+    static final int HEAP_SAMPLE_ROWS = 4096;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final StandController standController;
+    private final PersonController personController;
+    private final PublisherController publisherController;
+    private final BookController bookController;
+
+    public CsvImporter(StandController standController,
+                       PersonController personController,
+                       PublisherController publisherController,
+                       BookController bookController) {
+        this.standController = standController;
+        this.personController = personController;
+        this.publisherController = publisherController;
+        this.bookController = bookController;
+    }
+
+    public ImportReport importFile(Path file, Entity entity, boolean hasHeader) throws IOException {
+        Progress progress = new Progress();
+        long start = System.nanoTime();
+        try (CsvReader reader = new CsvReader(file)) {
+            if (hasHeader) {
+                reader.next();
+            }
+            if (entity == Entity.BOOKS) {
+                importBooks(reader, progress);
+            } else {
+                while (reader.next()) {
+                    progress.rows++;
+                    progress.record(reader.getLineNumber(), importRow(reader, entity));
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        progress.sampleHeap();
+        return new ImportReport(progress.rows, progress.accepted, progress.errors, elapsed,
+                progress.peakHeap - progress.baseHeap);
+    }
+
+    private Response<?> importRow(CsvReader reader, Entity entity) {
+        switch (entity) {
+            case STANDS:
+                if (reader.getFieldCount() != 2) {
+                    return columns(2);
+                }
+                return standController.createStand(reader.field(0), reader.field(1));
+            case AUTHORS:
+            case MANAGERS:
+            case NARRATORS:
+                if (reader.getFieldCount() != 3) {
+                    return columns(3);
+                }
+                String id = reader.field(0);
+                String firstname = reader.field(1);
+                String lastname = reader.field(2);
+                if (entity == Entity.AUTHORS) {
+                    return personController.createAuthor(id, firstname, lastname);
+                }
+                if (entity == Entity.MANAGERS) {
+                    return personController.createManager(id, firstname, lastname);
+                }
+                return personController.createNarrator(id, firstname, lastname);
+            default:
+                if (reader.getFieldCount() != 4) {
+                    return columns(4);
+                }
+                return publisherController.createPublisher(reader.field(0), reader.field(1),
+                        reader.field(2), reader.field(3));
+        }
+    }
+
+    private void importBooks(CsvReader reader, Progress progress) throws IOException {
+        List<BookImportRow> batch = new ArrayList<>(BOOK_BATCH);
+        long[] lines = new long[BOOK_BATCH];
+        while (reader.next()) {
+            progress.rows++;
+            BookImportRow row;
+            try {
+                row = bookRow(reader);
+            } catch (IllegalArgumentException e) {
+                progress.record(reader.getLineNumber(), Response.of(
+                        StatusCode.BAD_REQUEST, e.getMessage()));
+                continue;
+            }
+            lines[batch.size()] = reader.getLineNumber();
+            batch.add(row);
+            if (batch.size() == BOOK_BATCH) {
+                flushBooks(batch, lines, progress);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBooks(batch, lines, progress);
+        }
+    }
+
+    private void flushBooks(List<BookImportRow> batch, long[] lines, Progress progress) {
+        Response<BookImportResult> response = bookController.importBooks(batch);
+        List<Response<String>> results = response.getData().getRows();
+        for (int i = 0; i < results.size(); i++) {
+            progress.record(lines[i], results.get(i));
+        }
+        batch.clear();
+        progress.sampleHeap();
+    }
+
+    private static BookImportRow bookRow(CsvReader reader) {
+        if (reader.getFieldCount() < 8) {
+            throw new IllegalArgumentException("Se esperaban al menos 8 columnas.");
+        }
+        String type = reader.field(0).trim().toLowerCase(Locale.ROOT);
+        List<Long> authorIds = authorIds(reader.field(2));
+        String title = reader.field(1);
+        String isbn = reader.field(3);
+        String genre = reader.field(4);
+        String format = reader.field(5);
+        String value = reader.field(6);
+        String nit = reader.field(7);
+        switch (type) {
+            case "impreso":
+                requireColumns(reader, 10);
+                return BookImportRow.printed(title, authorIds, isbn, genre, format, value, nit,
+                        reader.field(8), reader.field(9));
+            case "digital":
+                return BookImportRow.digital(title, authorIds, isbn, genre, format, value, nit,
+                        reader.getFieldCount() > 8 ? reader.field(8) : null);
+            case "audiolibro":
+                requireColumns(reader, 10);
+                return BookImportRow.audiobook(title, authorIds, isbn, genre, format, value, nit,
+                        reader.field(8), reader.field(9));
+            default:
+                throw new IllegalArgumentException(
+                        "El tipo de libro debe ser impreso, digital o audiolibro.");
+        }
+    }
+
+    private static List<Long> authorIds(String text) {
+        List<Long> ids = new ArrayList<>();
+        int start = 0;
+        while (start <= text.length()) {
+            int end = text.indexOf(';', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            String id = text.substring(start, end).trim();
+            if (!id.isEmpty()) {
+                try {
+                    ids.add(Long.parseLong(id));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Los ids de autores deben ser números enteros.");
+                }
+            }
+            start = end + 1;
+        }
+        return ids;
+    }
+
+    private static void requireColumns(CsvReader reader, int count) {
+        if (reader.getFieldCount() < count) {
+            throw new IllegalArgumentException("Se esperaban " + count + " columnas.");
+        }
+    }
+
+    private static Response<Void> columns(int count) {
+        return Response.of(StatusCode.BAD_REQUEST,
+                "Se esperaban " + count + " columnas.");
+    }
+
+    private static final class Progress {
+
+        long rows;
+        long accepted;
+        final List<String> errors = new ArrayList<>();
+        // heap usado al empezar y el máximo visto en las muestras
+        final long baseHeap = usedHeap();
+        long peakHeap = baseHeap;
+
+        void record(long line, Response<?> response) {
+            if (rows % HEAP_SAMPLE_ROWS == 0) {
+                sampleHeap();
+            }
+            if (response.isSuccess()) {
+                accepted++;
+            } else if (errors.size() < MAX_ERRORS) {
+                errors.add("Línea " + line + ": " + response.getMessage());
+            }
+        }
+
+        void sampleHeap() {
+            peakHeap = Math.max(peakHeap, usedHeap());
+        }
+
+        private static long usedHeap() {
+            return MEMORY.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package megaferia.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lector CSV (RFC 4180: comillas dobles, {@code ""} como comilla escapada,
+ * saltos de línea dentro de comillas) que lee el archivo por bloques con un
+ * {@link FileChannel}. Cada registro se copia, ya sin comillas, a un único
+ * arreglo de bytes reutilizable junto con el fin de cada campo; solo se
+ * crean {@code String} para los campos que se piden. Las líneas vacías se
+ * ignoran y se acepta un BOM UTF-8 al inicio.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BLOCK = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK);
+    private boolean eof;
+
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] ends = new int[16];
+    private int fieldCount;
+
+    private long lineNumber;
+    private long nextLine = 1;
+
+    public CsvReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        skipBom();
+    }
+
+    /** Avanza al siguiente registro; false al llegar al final del archivo. */
+    public boolean next() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        lineNumber = nextLine;
+        int fieldStart = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        boolean blank = true;
+
+        while (true) {
+            int b = read();
+            if (b < 0) {
+                if (blank) {
+                    return false;
+                }
+                endField();
+                return true;
+            }
+            if (inQuotes) {
+                if (b == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (b == '\n') {
+                        nextLine++;
+                    }
+                    append(b);
+                }
+            } else if (b == '\n') {
+                nextLine++;
+                if (blank) {
+                    lineNumber = nextLine;
+                    continue;
+                }
+                endField();
+                return true;
+            } else if (b == '\r') {
+                // se ignora: cubre los finales de línea \r\n
+            } else if (b == ',') {
+                blank = false;
+                endField();
+                fieldStart = recordLength;
+                quoted = false;
+            } else if (b == '"' && !quoted && recordLength == fieldStart) {
+                blank = false;
+                quoted = true;
+                inQuotes = true;
+            } else {
+                blank = false;
+                append(b);
+            }
+        }
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /** Línea del archivo (desde 1) donde empieza el registro actual. */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String field(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("El registro tiene " + fieldCount + " campos.");
+        }
+        int start = index == 0 ? 0 : ends[index - 1];
+        return new String(record, start, ends[index] - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(int b) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length << 1);
+        }
+        record[recordLength++] = (byte) b;
+    }
+
+    private void endField() {
+        if (fieldCount == ends.length) {
+            ends = Arrays.copyOf(ends, ends.length << 1);
+        }
+        ends[fieldCount++] = recordLength;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void skipBom() throws IOException {
+        // se leen los tres primeros bytes (o menos si el archivo es más
+        // corto) sin consumirlos; solo se saltan si son el BOM
+        buffer.clear();
+        while (buffer.position() < 3 && channel.read(buffer) >= 0) {
+            // un canal de archivo puede devolver menos bytes de los pedidos
+        }
+        buffer.flip();
+        if (buffer.remaining() >= 3
+                && (buffer.get(0) & 0xFF) == 0xEF
+                && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            buffer.position(3);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package megaferia.io;
+
+public enum ExportFormat {
+    CSV,
+    /** Un arreglo JSON con un objeto por fila. */
+    JSON
+}
@@ -0,0 +1,62 @@
+package megaferia.io;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación: filas leídas, aceptadas y rechazadas, los
+ * primeros errores con su número de línea, la duración y cuánto creció
+ * el heap usado: el mayor aumento respecto del inicio entre las muestras
+ * tomadas mientras corría.
+ */
+public class ImportReport {
+
+    private final long rows;
+    private final long accepted;
+    private final List<String> errors;
+    private final long elapsedNanos;
+    private final long heapGrowthBytes;
+
+    ImportReport(long rows, long accepted, List<String> errors, long elapsedNanos, long heapGrowthBytes) {
+        this.rows = rows;
+        this.accepted = accepted;
+        this.errors = List.copyOf(errors);
+        this.elapsedNanos = elapsedNanos;
+        this.heapGrowthBytes = heapGrowthBytes;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rows - accepted;
+    }
+
+    /** Hasta {@value CsvImporter#MAX_ERRORS} mensajes, en orden de línea. */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long getHeapGrowthBytes() {
+        return heapGrowthBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d filas (%d aceptadas, %d rechazadas) en %.1f s, %.0f filas/s, heap +%d MB",
+                rows, accepted, getRejected(), elapsedNanos / 1e9, getRowsPerSecond(),
+                heapGrowthBytes / (1024 * 1024));
+    }
+}
@@ -0,0 +1,229 @@
+package megaferia.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escribe una tabla fila por fila directamente sobre el {@link Writer}, sin
+ * armar la fila en memoria. Cada fila debe traer exactamente un valor por
+ * columna; null o {@link #empty()} es un valor vacío.
+ */
+abstract class TableWriter {
+
+    protected final Writer out;
+    protected final String[] columns;
+    protected int column;
+    protected long rows;
+
+    TableWriter(Writer out, String[] columns) {
+        this.out = out;
+        this.columns = columns;
+    }
+
+    static TableWriter of(ExportFormat format, Writer out, String... columns) throws IOException {
+        TableWriter writer = format == ExportFormat.JSON ? new Json(out, columns) : new Csv(out, columns);
+        writer.begin();
+        return writer;
+    }
+
+    abstract void begin() throws IOException;
+
+    abstract void text(String value) throws IOException;
+
+    abstract void number(double value) throws IOException;
+
+    abstract void integer(long value) throws IOException;
+
+    abstract void empty() throws IOException;
+
+    /** Cierra la tabla y vacía el buffer; no cierra el flujo de destino. */
+    abstract void end() throws IOException;
+
+    long getRows() {
+        return rows;
+    }
+
+    private static final class Csv extends TableWriter {
+
+        Csv(Writer out, String[] columns) {
+            super(out, columns);
+        }
+
+        @Override
+        void begin() throws IOException {
+            for (String name : columns) {
+                text(name);
+            }
+            rows = 0;
+        }
+
+        private void separator() throws IOException {
+            if (column > 0) {
+                out.write(',');
+            }
+            if (++column == columns.length) {
+                column = 0;
+            }
+        }
+
+        private void lineEnd() throws IOException {
+            if (column == 0) {
+                out.write('\n');
+                rows++;
+            }
+        }
+
+        @Override
+        void text(String value) throws IOException {
+            separator();
+            if (value != null) {
+                if (needsQuotes(value)) {
+                    out.write('"');
+                    for (int i = 0; i < value.length(); i++) {
+                        char c = value.charAt(i);
+                        if (c == '"') {
+                            out.write('"');
+                        }
+                        out.write(c);
+                    }
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            lineEnd();
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void number(double value) throws IOException {
+            separator();
+            out.write(Double.toString(value));
+            lineEnd();
+        }
+
+        @Override
+        void integer(long value) throws IOException {
+            separator();
+            out.write(Long.toString(value));
+            lineEnd();
+        }
+
+        @Override
+        void empty() throws IOException {
+            separator();
+            lineEnd();
+        }
+
+        @Override
+        void end() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class Json extends TableWriter {
+
+        Json(Writer out, String[] columns) {
+            super(out, columns);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write('[');
+        }
+
+        private void key() throws IOException {
+            if (column == 0) {
+                out.write(rows == 0 ? "\n{" : ",\n{");
+            } else {
+                out.write(',');
+            }
+            quoted(columns[column]);
+            out.write(':');
+        }
+
+        private void valueEnd() throws IOException {
+            if (++column == columns.length) {
+                out.write('}');
+                column = 0;
+                rows++;
+            }
+        }
+
+        private void quoted(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.write("\\\"");
+                        break;
+                    case '\\':
+                        out.write("\\\\");
+                        break;
+                    case '\n':
+                        out.write("\\n");
+                        break;
+                    case '\r':
+                        out.write("\\r");
+                        break;
+                    case '\t':
+                        out.write("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+
+        @Override
+        void text(String value) throws IOException {
+            key();
+            if (value == null) {
+                out.write("null");
+            } else {
+                quoted(value);
+            }
+            valueEnd();
+        }
+
+        @Override
+        void number(double value) throws IOException {
+            key();
+            out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+            valueEnd();
+        }
+
+        @Override
+        void integer(long value) throws IOException {
+            key();
+            out.write(Long.toString(value));
+            valueEnd();
+        }
+
+        @Override
+        void empty() throws IOException {
+            text(null);
+        }
+
+        @Override
+        void end() throws IOException {
+            out.write(rows == 0 ? "]\n" : "\n]\n");
+            out.flush();
+        }
+    }
+}
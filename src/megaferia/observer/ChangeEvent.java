@@ -0,0 +1,106 @@
+package megaferia.observer;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aviso de cambio con el tipo de dato, la clase de cambio y las claves
+ * afectadas (ids {@code Long} de stands y personas, NIT de editoriales,
+ * ISBN de libros). Sin claves significa "cambió algo de este tipo" y el
+ * observador debe releer todo, como con {@link Observer#update(String)}.
+ */
+public final class ChangeEvent {
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        /** Se agregaron relaciones (p. ej. la compra de stands por editoriales). */
+        LINKED
+    }
+
+    private final String dataType;
+    private final Kind kind;
+    private final List<Object> keys;
+
+    private ChangeEvent(String dataType, Kind kind, Collection<?> keys) {
+        this.dataType = dataType;
+        this.kind = kind;
+        this.keys = List.copyOf(keys);
+    }
+
+    public static ChangeEvent created(String dataType, Object key) {
+        return new ChangeEvent(dataType, Kind.CREATED, List.of(key));
+    }
+
+    public static ChangeEvent linked(String dataType, Collection<?> keys) {
+        return new ChangeEvent(dataType, Kind.LINKED, keys);
+    }
+
+    public static ChangeEvent of(String dataType, Kind kind, Collection<?> keys) {
+        return new ChangeEvent(dataType, kind, keys);
+    }
+
+    /** Cambio sin claves: el observador no sabe qué cambió. */
+    public static ChangeEvent unspecified(String dataType) {
+        return new ChangeEvent(dataType, Kind.UPDATED, List.of());
+    }
+
+    public String getDataType() {
+        return dataType;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Object> getKeys() {
+        return keys;
+    }
+
+    public boolean isUnspecified() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Junta avisos del mismo tipo y clase en uno con las claves de todos, sin
+     * repetir. Las claves se acumulan en un solo conjunto y se copian una vez
+     * en {@link #build()}, así juntar una ráfaga cuesta lo mismo que sus
+     * claves. Si algún aviso no trae claves el resultado tampoco. No es
+     * seguro para varios hilos: lo protege quien lo usa.
+     */
+    public static final class Merger {
+
+        private final String dataType;
+        private final Kind kind;
+        // null en cuanto llega un aviso sin claves
+        private Set<Object> keys = new LinkedHashSet<>();
+
+        public Merger(ChangeEvent first) {
+            this.dataType = first.dataType;
+            this.kind = first.kind;
+            add(first);
+        }
+
+        public void add(ChangeEvent event) {
+            if (keys == null) {
+                return;
+            }
+            if (event.isUnspecified()) {
+                keys = null;
+            } else {
+                keys.addAll(event.keys);
+            }
+        }
+
+        public ChangeEvent build() {
+            return new ChangeEvent(dataType, kind, keys == null ? List.of() : keys);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return dataType + " " + kind + " " + keys;
+    }
+}
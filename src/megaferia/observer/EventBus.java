@@ -0,0 +1,178 @@
+package megaferia.observer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Intermediario asíncrono entre los controladores y sus observadores. Se
+ * registra como observador de los controladores y reparte cada aviso en su
+ * propio hilo, así un observador lento no frena las escrituras.
+ *
+ * <p>Los avisos del mismo tipo y clase de cambio que llegan antes de ser
+ * entregados se juntan en uno solo con la unión de sus claves: diez mil
+ * libros creados durante una importación terminan en una sola
+ * actualización. Los contadores permiten ver cuánto se está quedando atrás
+ * la entrega.
+ */
+public class EventBus implements Observer, Subject, AutoCloseable {
+
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor;
+
+    // avisos pendientes por tipo y clase, en orden de llegada; protegido por this
+    private final Map<String, ChangeEvent.Merger> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean closed;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile RuntimeException lastFailure;
+
+    public EventBus() {
+        this(Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "megaferia-events");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public EventBus(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void registerObserver(Observer observer) {
+        if (observer != null && !observers.contains(observer)) {
+            observers.add(observer);
+        }
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    /** Encola el aviso; retorna de inmediato. Tras {@link #close()} se descarta. */
+    @Override
+    public void notifyObservers(ChangeEvent event) {
+        published.incrementAndGet();
+        String slot = event.getDataType() + '/' + event.getKind();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            ChangeEvent.Merger queued = pending.get(slot);
+            if (queued != null) {
+                queued.add(event);
+                coalesced.incrementAndGet();
+                return;
+            }
+            pending.put(slot, new ChangeEvent.Merger(event));
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // el ejecutor se cerró por fuera: sin esto nadie volvería a programar la entrega
+            synchronized (this) {
+                scheduled = false;
+                pending.clear();
+            }
+        }
+    }
+
+    @Override
+    public void notifyObservers(String dataType) {
+        notifyObservers(ChangeEvent.unspecified(dataType));
+    }
+
+    @Override
+    public void update(String dataType) {
+        notifyObservers(ChangeEvent.unspecified(dataType));
+    }
+
+    @Override
+    public void onChange(ChangeEvent event) {
+        notifyObservers(event);
+    }
+
+    private void drain() {
+        while (true) {
+            List<ChangeEvent> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.size());
+                for (ChangeEvent.Merger merger : pending.values()) {
+                    batch.add(merger.build());
+                }
+                pending.clear();
+            }
+            for (ChangeEvent event : batch) {
+                for (Observer observer : observers) {
+                    try {
+                        observer.onChange(event);
+                    } catch (RuntimeException e) {
+                        // un observador que falla no debe cortar la entrega a los demás
+                        failed.incrementAndGet();
+                        lastFailure = e;
+                    }
+                }
+                delivered.incrementAndGet();
+            }
+        }
+    }
+
+    /** Avisos recibidos de los controladores. */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /** Avisos entregados (uno por tipo y clase en cada ronda, no por observador). */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /** Avisos absorbidos por otro del mismo tipo que aún no se entregaba. */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /** Entregas en las que un observador lanzó una excepción. */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** Última excepción lanzada por un observador, o null si ninguno falló. */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    /** Avisos (ya agrupados) esperando entrega. */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /** Deja de aceptar avisos; los ya encolados se entregan. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        executor.shutdown();
+    }
+}
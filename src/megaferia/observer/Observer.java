@@ -3,4 +3,13 @@ package megaferia.observer;
 public interface Observer {
 
     void update(String dataType);
+
+    /**
+     * Aviso con las claves afectadas. Por defecto se reduce a
+     * {@link #update(String)}; los observadores que puedan aplicar el cambio
+     * de forma incremental lo sobrescriben.
+     */
+    default void onChange(ChangeEvent event) {
+        update(event.getDataType());
+    }
 }
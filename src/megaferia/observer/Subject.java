@@ -7,4 +7,9 @@ public interface Subject {
     void removeObserver(Observer observer);
 
     void notifyObservers(String dataType);
+
+    /** Por defecto se reduce al aviso por tipo. */
+    default void notifyObservers(ChangeEvent event) {
+        notifyObservers(event.getDataType());
+    }
 }
@@ -0,0 +1,153 @@
+package megaferia.storage;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Libro ya validado que todavía no existe: los datos y las entidades
+ * resueltas, sin ningún enlace. Los constructores de {@code core} enlazan el
+ * libro con sus autores, su editorial y su narrador, así que
+ * {@link #build()} solo lo llama el repositorio al aplicar la escritura,
+ * después de que el registro quedó en el log.
+ */
+public final class BookDraft {
+
+    public enum Type {
+        PRINTED,
+        DIGITAL,
+        AUDIOBOOK
+    }
+
+    private final Type type;
+    private final String title;
+    private final List<Author> authors;
+    private final String isbn;
+    private final String genre;
+    private final String format;
+    private final double value;
+    private final Publisher publisher;
+    // según el tipo
+    private final int pages;
+    private final int copies;
+    private final String hyperlink;
+    private final int duration;
+    private final Narrator narrator;
+
+    private BookDraft(Type type, String title, List<Author> authors, String isbn, String genre,
+                      String format, double value, Publisher publisher, int pages, int copies,
+                      String hyperlink, int duration, Narrator narrator) {
+        this.type = type;
+        this.title = title;
+        this.authors = List.copyOf(authors);
+        this.isbn = isbn;
+        this.genre = genre;
+        this.format = format;
+        this.value = value;
+        this.publisher = publisher;
+        this.pages = pages;
+        this.copies = copies;
+        this.hyperlink = hyperlink;
+        this.duration = duration;
+        this.narrator = narrator;
+    }
+
+    public static BookDraft printed(String title, List<Author> authors, String isbn, String genre,
+                                    String format, double value, Publisher publisher,
+                                    int pages, int copies) {
+        return new BookDraft(Type.PRINTED, title, authors, isbn, genre, format, value, publisher,
+                pages, copies, null, 0, null);
+    }
+
+    /** {@code hyperlink} puede ser null: libro digital sin hipervínculo. */
+    public static BookDraft digital(String title, List<Author> authors, String isbn, String genre,
+                                    String format, double value, Publisher publisher,
+                                    String hyperlink) {
+        return new BookDraft(Type.DIGITAL, title, authors, isbn, genre, format, value, publisher,
+                0, 0, hyperlink, 0, null);
+    }
+
+    public static BookDraft audiobook(String title, List<Author> authors, String isbn, String genre,
+                                      String format, double value, Publisher publisher,
+                                      int duration, Narrator narrator) {
+        return new BookDraft(Type.AUDIOBOOK, title, authors, isbn, genre, format, value, publisher,
+                0, 0, null, duration, narrator);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<Author> getAuthors() {
+        return authors;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    public String getHyperlink() {
+        return hyperlink;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public Narrator getNarrator() {
+        return narrator;
+    }
+
+    /** Crea el libro; el constructor lo enlaza con autores, editorial y narrador. */
+    public Book build() {
+        ArrayList<Author> bookAuthors = new ArrayList<>(authors);
+        switch (type) {
+            case PRINTED:
+                return new PrintedBook(title, bookAuthors, isbn, genre, format, value, publisher,
+                        pages, copies);
+            case DIGITAL:
+                if (hyperlink == null) {
+                    return new DigitalBook(title, bookAuthors, isbn, genre, format, value, publisher);
+                }
+                return new DigitalBook(title, bookAuthors, isbn, genre, format, value, publisher,
+                        hyperlink);
+            default:
+                return new Audiobook(title, bookAuthors, isbn, genre, format, value, publisher,
+                        duration, narrator);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package megaferia.storage;
+
+import core.Author;
+import core.Book;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Índices secundarios de libros (formato, género, clase concreta y NIT de
+ * la editorial). Cada valor de la columna apunta a un árbol ISBN -> libro,
+ * así una actualización que cambia de formato o editorial solo toca los
+ * dos árboles afectados. Los autores tienen su propio índice invertido con
+ * claves {@code long}: id del autor -> libros en orden de ISBN. Los
+ * títulos normalizados van en un árbol aparte para buscar por prefijo.
+ */
+final class BookIndex {
+
+    private final Column<String> byFormat = new Column<>(Book::getFormat);
+    private final Column<String> byGenre = new Column<>(Book::getGenre);
+    private final Column<Class<?>> byType = new Column<>(Book::getClass);
+    private final Column<String> byPublisher = new Column<>(book -> book.getPublisher().getNit());
+    private final LongHashMap<NavigableMap<String, Book>> byAuthor = new LongHashMap<>();
+    private final PublisherSpread spread = new PublisherSpread();
+    // "titulo normalizado\0isbn" -> libro; el ISBN desempata títulos iguales
+    private final NavigableMap<String, Book> byTitle = new TreeMap<>();
+    // libros nuevos de la escritura en curso que aún no están en byTitle: se
+    // ordenan e insertan juntos al terminarla (flushTitles), así un lote no
+    // paga una inserción desordenada en el árbol por libro
+    private List<Book> pendingTitles = new ArrayList<>();
+
+    /** Registra {@code current} en lugar de {@code previous} (null si es nuevo). */
+    void put(Book previous, Book current) {
+        byFormat.put(previous, current);
+        byGenre.put(previous, current);
+        byType.put(previous, current);
+        byPublisher.put(previous, current);
+        if (previous != null) {
+            byTitle.remove(titleKey(previous));
+            for (Author author : previous.getAuthors()) {
+                NavigableMap<String, Book> postings = byAuthor.get(author.getId());
+                if (postings != null) {
+                    postings.remove(previous.getIsbn());
+                }
+                spread.remove(author.getId(), previous.getPublisher().getNit());
+            }
+        }
+        for (Author author : current.getAuthors()) {
+            NavigableMap<String, Book> postings = byAuthor.get(author.getId());
+            if (postings == null) {
+                postings = new TreeMap<>();
+                byAuthor.put(author.getId(), postings);
+            }
+            postings.put(current.getIsbn(), current);
+            spread.add(author.getId(), current.getPublisher().getNit());
+        }
+        if (previous != null) {
+            byTitle.put(titleKey(current), current);
+        } else {
+            pendingTitles.add(current);
+        }
+    }
+
+    List<Book> byFormat(String format) {
+        return byFormat.find(format);
+    }
+
+    List<Book> byGenre(String genre) {
+        return byGenre.find(genre);
+    }
+
+    List<Book> byType(Class<? extends Book> type) {
+        return byType.find(type);
+    }
+
+    List<Book> byPublisher(String nit) {
+        return byPublisher.find(nit);
+    }
+
+    List<Book> byAuthor(long authorId) {
+        NavigableMap<String, Book> postings = byAuthor.get(authorId);
+        return postings == null ? List.of() : List.copyOf(postings.values());
+    }
+
+    TopAuthors topAuthors() {
+        return spread.top();
+    }
+
+    /**
+     * Libros cuyo título normalizado empieza por {@code prefix} (ya
+     * normalizado), en orden de título. Es una vista del árbol: se recorre
+     * solo lo que se pida.
+     */
+    Collection<Book> byTitlePrefix(String prefix) {
+        return byTitle.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    // letra base de cada carácter Latin-1 en minúscula (á -> a, ñ -> n); el
+    // resto de los textos acentuados pasa por Normalizer
+    private static final char[] LATIN1_BASE = new char[0x100 - 0x80];
+
+    static {
+        for (char c = 0x80; c < 0x100; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            LATIN1_BASE[c - 0x80] = decomposed.charAt(0);
+        }
+    }
+
+    /** Minúsculas y sin tildes, para que "Érase" se encuentre con "era". */
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length() && lower.charAt(i) < 0x80) {
+            i++;
+        }
+        if (i == lower.length()) {
+            return lower;
+        }
+        StringBuilder folded = new StringBuilder(lower.length()).append(lower, 0, i);
+        for (; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c < 0x80) {
+                folded.append(c);
+            } else if (c < 0x100) {
+                folded.append(LATIN1_BASE[c - 0x80]);
+            } else {
+                return stripMarks(Normalizer.normalize(lower, Normalizer.Form.NFD));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static String stripMarks(String decomposed) {
+        StringBuilder text = new StringBuilder(decomposed.length());
+        for (int k = 0; k < decomposed.length(); k++) {
+            char c = decomposed.charAt(k);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Pasa al árbol de títulos los libros nuevos de la escritura que acaba
+     * de terminar. Se llama desde el camino de escritura, así las búsquedas
+     * solo leen el índice.
+     */
+    void flushTitles() {
+        if (pendingTitles.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Book>> entries = new ArrayList<>(pendingTitles.size());
+        for (Book book : pendingTitles) {
+            entries.add(Map.entry(titleKey(book), book));
+        }
+        pendingTitles = new ArrayList<>();
+        // en orden, cada inserción baja por la misma rama del árbol
+        entries.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<String, Book> entry : entries) {
+            byTitle.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static String titleKey(Book book) {
+        return normalize(book.getTitle()) + '\0' + book.getIsbn();
+    }
+
+    private static final class Column<K> {
+
+        private final Function<Book, K> keyOf;
+        private final Map<K, NavigableMap<String, Book>> buckets = new HashMap<>();
+
+        Column(Function<Book, K> keyOf) {
+            this.keyOf = keyOf;
+        }
+
+        void put(Book previous, Book current) {
+            if (previous != null) {
+                NavigableMap<String, Book> bucket = buckets.get(keyOf.apply(previous));
+                if (bucket != null) {
+                    bucket.remove(previous.getIsbn());
+                    if (bucket.isEmpty()) {
+                        buckets.remove(keyOf.apply(previous));
+                    }
+                }
+            }
+            buckets.computeIfAbsent(keyOf.apply(current), key -> new TreeMap<>())
+                    .put(current.getIsbn(), current);
+        }
+
+        List<Book> find(Object key) {
+            NavigableMap<String, Book> bucket = key == null ? null : buckets.get(key);
+            return bucket == null ? List.of() : List.copyOf(bucket.values());
+        }
+    }
+}
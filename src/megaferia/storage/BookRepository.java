@@ -3,45 +3,104 @@ package megaferia.storage;
 import core.Book;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
-public class BookRepository implements Repository<Book, String> {
+public class BookRepository extends IndexedRepository<Book, String> implements BookStore {
 
-    private final List<Book> data = new ArrayList<>();
+    private final BookIndex secondary = new BookIndex();
+
+    public BookRepository() {
+        super(Book::getIsbn, Comparator.naturalOrder());
+    }
 
     @Override
-    public Book save(Book entity) {
-        data.add(entity);
-        sortData();
-        return entity;
+    protected void stored(Book previous, Book current) {
+        secondary.put(previous, current);
     }
 
     @Override
-    public Book update(Book entity) {
-        for (int i = 0; i < data.size(); i++) {
-            if (data.get(i).getIsbn().equals(entity.getIsbn())) {
-                data.set(i, entity);
-                sortData();
-                return entity;
+    protected void writeFinished() {
+        secondary.flushTitles();
+    }
+
+    @Override
+    public List<Book> createAll(List<BookDraft> drafts) {
+        Set<String> batch = new HashSet<>();
+        List<Book> created = new ArrayList<>(drafts.size());
+        for (BookDraft draft : drafts) {
+            if (findById(draft.getIsbn()).isEmpty() && batch.add(draft.getIsbn())) {
+                created.add(draft.build());
             }
         }
-        return null;
+        if (!created.isEmpty()) {
+            saveAll(created);
+        }
+        return created;
+    }
+
+    @Override
+    public List<Book> findByFormat(String format) {
+        return secondary.byFormat(format);
+    }
+
+    @Override
+    public List<Book> findByGenre(String genre) {
+        return secondary.byGenre(genre);
+    }
+
+    @Override
+    public List<Book> findByType(Class<? extends Book> type) {
+        return secondary.byType(type);
+    }
+
+    @Override
+    public List<Book> findByPublisher(String nit) {
+        return secondary.byPublisher(nit);
     }
 
     @Override
-    public Optional<Book> findById(String isbn) {
-        return data.stream()
-                .filter(e -> e.getIsbn().equals(isbn))
-                .findFirst();
+    public List<Book> findByAuthor(long authorId) {
+        return secondary.byAuthor(authorId);
     }
 
     @Override
-    public List<Book> findAll() {
-        return new ArrayList<>(data);
+    public TopAuthors findTopAuthorsByPublishers() {
+        return secondary.topAuthors();
     }
 
-    private void sortData() {
-        data.sort(Comparator.comparing(Book::getIsbn));
+    @Override
+    public List<Book> findByPrefix(String prefix, int offset, int limit) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String isbnPrefix = prefix.trim();
+        int skip = Math.max(offset, 0);
+        List<Book> page = new ArrayList<>(Math.min(limit, 64));
+
+        // el árbol principal ya está en orden de ISBN
+        for (Book book : from(isbnPrefix)) {
+            if (!book.getIsbn().startsWith(isbnPrefix)) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (page.add(book) && page.size() == limit) {
+                return page;
+            }
+        }
+
+        for (Book book : secondary.byTitlePrefix(BookIndex.normalize(isbnPrefix))) {
+            if (book.getIsbn().startsWith(isbnPrefix)) {
+                continue; // ya salió por ISBN
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (page.add(book) && page.size() == limit) {
+                return page;
+            }
+        }
+        return page;
     }
 }
@@ -0,0 +1,46 @@
+package megaferia.storage;
+
+import core.Book;
+import java.util.List;
+
+/**
+ * Repositorio de libros con consultas por índices secundarios. Cada
+ * consulta devuelve una lista inmutable en orden de ISBN y tarda en
+ * proporción al tamaño del resultado, no al del catálogo.
+ */
+public interface BookStore extends Repository<Book, String> {
+
+    /**
+     * Crea y guarda los libros de {@code drafts} cuyo ISBN no existe ni se
+     * repite antes en el lote, y los devuelve en el orden del lote. La
+     * comprobación y el guardado son una sola operación, y cada libro se
+     * construye (con eso se enlaza con autores, editorial y narrador) recién
+     * al aplicar la escritura: si el log falla no queda ningún enlace.
+     */
+    List<Book> createAll(List<BookDraft> drafts);
+
+    List<Book> findByFormat(String format);
+
+    List<Book> findByGenre(String genre);
+
+    /** Libros cuya clase concreta es exactamente {@code type}. */
+    List<Book> findByType(Class<? extends Book> type);
+
+    List<Book> findByPublisher(String nit);
+
+    /** Libros en los que figura el autor con ese id. */
+    List<Book> findByAuthor(long authorId);
+
+    /** Ranking de autores por editoriales distintas, mantenido al guardar libros. */
+    TopAuthors findTopAuthorsByPublishers();
+
+    /**
+     * Búsqueda por prefijo: primero los libros cuyo ISBN empieza por
+     * {@code prefix} (en orden de ISBN) y después aquellos cuyo título lo
+     * hace sin distinguir mayúsculas ni tildes (en orden de título). Cada
+     * libro sale una sola vez. Devuelve hasta {@code limit} libros saltando
+     * los {@code offset} primeros; cuesta lo que mide la página más lo
+     * saltado, no el catálogo.
+     */
+    List<Book> findByPrefix(String prefix, int offset, int limit);
+}
@@ -0,0 +1,21 @@
+package megaferia.storage;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * {@link ConcurrentRepository} de clave numérica, para personas. El skip
+ * list guarda claves {@link Long}, así que findById(long) encajona el id.
+ */
+public class ConcurrentLongRepository<T> extends ConcurrentRepository<T, Long> implements LongRepository<T> {
+
+    public ConcurrentLongRepository(Function<T, Long> keyOf) {
+        super(keyOf, Comparator.naturalOrder());
+    }
+
+    @Override
+    public Optional<T> findById(long id) {
+        return findById(Long.valueOf(id));
+    }
+}
@@ -0,0 +1,152 @@
+package megaferia.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio seguro para varios hilos (varias taquillas registrando a la
+ * vez) sin un candado global: todo vive en un único
+ * {@link ConcurrentSkipListMap}, así que cada save, saveIfAbsent o update es
+ * una sola operación atómica y findById y findAll nunca se contradicen.
+ * Lectores y escritores avanzan en paralelo; findAll devuelve una
+ * instantánea inmutable en orden de clave, etiquetada con la versión del
+ * repositorio en la que se construyó.
+ *
+ * <p>{@link megaferia.storage.persistence.DurableStorage} lo usa para
+ * personas y editoriales, que se leen desde varios hilos mientras se
+ * aplican escrituras; stands y libros necesitan el enlace de compras y los
+ * índices secundarios de sus propios repositorios.
+ */
+public class ConcurrentRepository<T, ID> implements Repository<T, ID> {
+
+    private final ConcurrentNavigableMap<ID, T> data;
+    private final Function<T, ID> keyOf;
+    // cada escritura sube la versión; la instantánea solo sirve si coincide
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<T> snapshot = new Snapshot<>(-1, List.of());
+
+    public ConcurrentRepository(Function<T, ID> keyOf, Comparator<ID> keyOrder) {
+        this.keyOf = keyOf;
+        this.data = new ConcurrentSkipListMap<>(keyOrder);
+    }
+
+    @Override
+    public T save(T entity) {
+        data.put(keyOf.apply(entity), entity);
+        version.incrementAndGet();
+        return entity;
+    }
+
+    @Override
+    public boolean saveIfAbsent(T entity) {
+        if (data.putIfAbsent(keyOf.apply(entity), entity) != null) {
+            return false;
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public T update(T entity) {
+        // replace es atómico: no resucita una clave que no existe
+        if (data.replace(keyOf.apply(entity), entity) == null) {
+            return null; // el controlador decidirá qué hacer si no lo encuentra
+        }
+        version.incrementAndGet();
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        for (T entity : entities) {
+            save(entity);
+        }
+        return new ArrayList<>(entities);
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        List<T> updated = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            if (update(entity) != null) {
+                updated.add(entity);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(data.get(id));
+    }
+
+    @Override
+    public Map<ID, T> findAllById(Collection<ID> ids) {
+        Map<ID, T> found = new LinkedHashMap<>();
+        for (ID id : ids) {
+            T entity = id == null ? null : data.get(id);
+            if (entity != null) {
+                found.put(id, entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findPage(ID afterKey, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Collection<T> rest = afterKey == null
+                ? data.values()
+                : data.tailMap(afterKey, false).values();
+        List<T> page = new ArrayList<>(Math.min(limit, 64));
+        for (T entity : rest) {
+            page.add(entity);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<T> findAll() {
+        // se lee la versión antes de copiar: si una escritura se cuela durante
+        // la copia, la versión ya no coincidirá y la próxima lectura la rehace
+        long current = version.get();
+        Snapshot<T> cached = snapshot;
+        if (cached.version != current) {
+            cached = new Snapshot<>(current, List.copyOf(data.values()));
+            snapshot = cached;
+        }
+        return cached.entities;
+    }
+
+    @Override
+    public Stream<T> stream() {
+        // el recorrido del skip list es débilmente consistente: admite
+        // escrituras concurrentes sin copiar nada
+        return data.values().stream();
+    }
+
+    private static final class Snapshot<T> {
+        final long version;
+        final List<T> entities;
+
+        Snapshot(long version, List<T> entities) {
+            this.version = version;
+            this.entities = entities;
+        }
+    }
+}
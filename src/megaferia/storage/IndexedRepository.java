@@ -0,0 +1,181 @@
+package megaferia.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Base de los repositorios en memoria: guarda las entidades en un árbol
+ * ordenado por clave (requisito del parcial para findAll, sin reordenar en
+ * cada inserción) y un índice hash por clave primaria para que findById sea
+ * O(1).
+ */
+public abstract class IndexedRepository<T, ID> implements Repository<T, ID> {
+
+    private final NavigableMap<ID, T> data;
+    private final Map<ID, T> index = new HashMap<>();
+    private final Function<T, ID> keyOf;
+    // instantánea de findAll; se descarta en cada escritura
+    private List<T> snapshot;
+
+    protected IndexedRepository(Function<T, ID> keyOf, Comparator<ID> keyOrder) {
+        this.keyOf = keyOf;
+        this.data = new TreeMap<>(keyOrder);
+    }
+
+    @Override
+    public T save(T entity) {
+        ID key = keyOf.apply(entity);
+        // inserción ordenada en O(log n)
+        data.put(key, entity);
+        stored(index.put(key, entity), entity);
+        snapshot = null;
+        writeFinished();
+        return entity;
+    }
+
+    @Override
+    public boolean saveIfAbsent(T entity) {
+        if (index.containsKey(keyOf.apply(entity))) {
+            return false;
+        }
+        save(entity);
+        return true;
+    }
+
+    @Override
+    public T update(T entity) {
+        ID key = keyOf.apply(entity);
+        if (!index.containsKey(key)) {
+            return null; // el controlador decidirá qué hacer si no lo encuentra
+        }
+        data.put(key, entity);
+        stored(index.put(key, entity), entity);
+        snapshot = null;
+        writeFinished();
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        // se ordena el lote una sola vez; si el árbol está vacío putAll lo
+        // construye en tiempo lineal a partir del lote ya ordenado
+        NavigableMap<ID, T> batch = new TreeMap<>(data.comparator());
+        for (T entity : entities) {
+            batch.put(keyOf.apply(entity), entity);
+        }
+        for (Map.Entry<ID, T> entry : batch.entrySet()) {
+            stored(index.get(entry.getKey()), entry.getValue());
+        }
+        data.putAll(batch);
+        index.putAll(batch);
+        snapshot = null;
+        writeFinished();
+        return new ArrayList<>(entities);
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        List<T> updated = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            ID key = keyOf.apply(entity);
+            if (index.containsKey(key)) {
+                data.put(key, entity);
+                stored(index.put(key, entity), entity);
+                updated.add(entity);
+            }
+        }
+        if (!updated.isEmpty()) {
+            snapshot = null;
+            writeFinished();
+        }
+        return updated;
+    }
+
+    /**
+     * Se llama por cada entidad guardada; {@code previous} es la que había
+     * antes bajo la misma clave (null si es nueva).
+     * Las subclases lo usan para mantener índices secundarios.
+     */
+    protected void stored(T previous, T current) {
+    }
+
+    /**
+     * Se llama al final de cada save, update o lote, después de todos sus
+     * {@link #stored}. Las subclases lo usan para cerrar trabajo agrupado
+     * de sus índices.
+     */
+    protected void writeFinished() {
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return Optional.ofNullable(index.get(id));
+    }
+
+    @Override
+    public Map<ID, T> findAllById(Collection<ID> ids) {
+        Map<ID, T> found = new LinkedHashMap<>();
+        for (ID id : ids) {
+            T entity = id == null ? null : index.get(id);
+            if (entity != null) {
+                found.put(id, entity);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Entidades con clave mayor o igual que {@code fromKey}, en orden de
+     * clave. Es una vista del árbol para consultas por rango de las
+     * subclases; no se debe modificar.
+     */
+    protected Collection<T> from(ID fromKey) {
+        return data.tailMap(fromKey, true).values();
+    }
+
+    @Override
+    public List<T> findPage(ID afterKey, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Collection<T> rest = afterKey == null
+                ? data.values()
+                : data.tailMap(afterKey, false).values();
+        List<T> page = new ArrayList<>(Math.min(limit, 64));
+        for (T entity : rest) {
+            page.add(entity);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<T> findAll() {
+        // el árbol ya se recorre en orden de clave; la copia inmutable se
+        // reutiliza hasta la siguiente escritura
+        List<T> current = snapshot;
+        if (current == null) {
+            current = List.copyOf(data.values());
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @Override
+    public Stream<T> stream() {
+        // sin instantánea: se recorre el árbol tal cual
+        return data.values().stream();
+    }
+}
@@ -0,0 +1,188 @@
+package megaferia.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Base de los repositorios con clave numérica (stands y personas). Las
+ * entidades se indexan en un {@link LongHashMap} y el orden por id se lleva
+ * en un arreglo de {@code long} ordenado, así que ni findById ni findAll
+ * encajonan ids en {@link Long}.
+ */
+public abstract class LongKeyedRepository<T> implements LongRepository<T> {
+
+    private final LongHashMap<T> index = new LongHashMap<>();
+    private final ToLongFunction<T> keyOf;
+    private long[] order = new long[16];
+    private int size;
+    // instantánea de findAll; se descarta en cada escritura
+    private List<T> snapshot;
+
+    protected LongKeyedRepository(ToLongFunction<T> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    @Override
+    public T save(T entity) {
+        long key = keyOf.applyAsLong(entity);
+        if (index.put(key, entity) == null) {
+            insertKey(key);
+        }
+        snapshot = null;
+        return entity;
+    }
+
+    @Override
+    public boolean saveIfAbsent(T entity) {
+        if (index.containsKey(keyOf.applyAsLong(entity))) {
+            return false;
+        }
+        save(entity);
+        return true;
+    }
+
+    @Override
+    public T update(T entity) {
+        long key = keyOf.applyAsLong(entity);
+        if (!index.containsKey(key)) {
+            return null; // el controlador decidirá qué hacer si no lo encuentra
+        }
+        index.put(key, entity);
+        snapshot = null;
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        long[] newKeys = new long[entities.size()];
+        int added = 0;
+        for (T entity : entities) {
+            long key = keyOf.applyAsLong(entity);
+            if (index.put(key, entity) == null) {
+                newKeys[added++] = key;
+            }
+        }
+        mergeKeys(newKeys, added);
+        snapshot = null;
+        return new ArrayList<>(entities);
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        List<T> updated = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            long key = keyOf.applyAsLong(entity);
+            if (index.containsKey(key)) {
+                index.put(key, entity);
+                updated.add(entity);
+            }
+        }
+        if (!updated.isEmpty()) {
+            snapshot = null;
+        }
+        return updated;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return id == null ? Optional.empty() : findById(id.longValue());
+    }
+
+    @Override
+    public Optional<T> findById(long id) {
+        return Optional.ofNullable(index.get(id));
+    }
+
+    @Override
+    public Map<Long, T> findAllById(Collection<Long> ids) {
+        Map<Long, T> found = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T entity = id == null ? null : index.get(id.longValue());
+            if (entity != null) {
+                found.put(id, entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findPage(Long afterKey, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int from = 0;
+        if (afterKey != null) {
+            int pos = Arrays.binarySearch(order, 0, size, afterKey);
+            from = pos >= 0 ? pos + 1 : -(pos + 1);
+        }
+        int to = (int) Math.min((long) from + limit, size);
+        List<T> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(index.get(order[i]));
+        }
+        return page;
+    }
+
+    @Override
+    public List<T> findAll() {
+        List<T> current = snapshot;
+        if (current == null) {
+            @SuppressWarnings("unchecked")
+            T[] values = (T[]) new Object[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = index.get(order[i]);
+            }
+            current = Collections.unmodifiableList(Arrays.asList(values));
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @Override
+    public Stream<T> stream() {
+        // sin instantánea: se recorren las claves ordenadas tal cual
+        return Arrays.stream(order, 0, size).mapToObj(index::get);
+    }
+
+    private void insertKey(long key) {
+        // búsqueda binaria del punto de inserción para mantener el orden por id
+        int pos = -(Arrays.binarySearch(order, 0, size, key) + 1);
+        if (size == order.length) {
+            order = Arrays.copyOf(order, size << 1);
+        }
+        System.arraycopy(order, pos, order, pos + 1, size - pos);
+        order[pos] = key;
+        size++;
+    }
+
+    private void mergeKeys(long[] newKeys, int count) {
+        if (count == 0) {
+            return;
+        }
+        // un solo ordenamiento del lote y una mezcla lineal con las claves existentes
+        Arrays.sort(newKeys, 0, count);
+        long[] merged = new long[Math.max(16, size + count)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size && j < count) {
+            merged[k++] = order[i] <= newKeys[j] ? order[i++] : newKeys[j++];
+        }
+        while (i < size) {
+            merged[k++] = order[i++];
+        }
+        while (j < count) {
+            merged[k++] = newKeys[j++];
+        }
+        order = merged;
+        size = k;
+    }
+}
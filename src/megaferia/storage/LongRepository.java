@@ -0,0 +1,12 @@
+package megaferia.storage;
+
+import java.util.Optional;
+
+/**
+ * Repositorio con clave numérica (stands y personas): además de la búsqueda
+ * por {@link Long} permite buscar con el id primitivo, sin encajonarlo.
+ */
+public interface LongRepository<T> extends Repository<T, Long> {
+
+    Optional<T> findById(long id);
+}
@@ -0,0 +1,76 @@
+package megaferia.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranking incremental de autores por número de editoriales distintas. Por
+ * autor se cuentan sus libros en cada editorial; cuando una editorial
+ * aparece o desaparece el autor sube o baja un cubo. Como cada cambio mueve
+ * un solo autor un solo nivel, el máximo se mantiene en O(1).
+ */
+final class PublisherSpread {
+
+    private final LongHashMap<Map<String, Integer>> booksByPublisher = new LongHashMap<>();
+    // cantidad de editoriales -> autores con esa cantidad (solo cantidades > 0)
+    private final Map<Integer, Set<Long>> buckets = new HashMap<>();
+    private int max;
+
+    void add(long authorId, String nit) {
+        Map<String, Integer> counts = booksByPublisher.get(authorId);
+        if (counts == null) {
+            counts = new HashMap<>();
+            booksByPublisher.put(authorId, counts);
+        }
+        if (counts.merge(nit, 1, Integer::sum) == 1) {
+            move(authorId, counts.size() - 1, counts.size());
+        }
+    }
+
+    void remove(long authorId, String nit) {
+        Map<String, Integer> counts = booksByPublisher.get(authorId);
+        Integer books = counts == null ? null : counts.get(nit);
+        if (books == null) {
+            return;
+        }
+        if (books == 1) {
+            counts.remove(nit);
+            move(authorId, counts.size() + 1, counts.size());
+        } else {
+            counts.put(nit, books - 1);
+        }
+    }
+
+    TopAuthors top() {
+        if (max == 0) {
+            return new TopAuthors(0, List.of());
+        }
+        List<Long> ids = new ArrayList<>(buckets.get(max));
+        Collections.sort(ids);
+        return new TopAuthors(max, Collections.unmodifiableList(ids));
+    }
+
+    private void move(long authorId, int from, int to) {
+        if (from > 0) {
+            Set<Long> bucket = buckets.get(from);
+            bucket.remove(authorId);
+            if (bucket.isEmpty()) {
+                buckets.remove(from);
+                if (from == max) {
+                    max = to; // bajó un nivel: el autor sigue siendo de los que más tienen
+                }
+            }
+        }
+        if (to > 0) {
+            buckets.computeIfAbsent(to, count -> new HashSet<>()).add(authorId);
+        }
+        if (to > max) {
+            max = to;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package megaferia.storage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface Repository<T, ID> {
 
@@ -9,7 +12,57 @@ public interface Repository<T, ID> {
 
     T update(T entity);
 
+    /**
+     * Guarda la entidad solo si su clave no existe, en una sola operación:
+     * ninguna otra escritura se intercala entre la comprobación y el
+     * guardado. Devuelve false si la clave ya estaba.
+     */
+    boolean saveIfAbsent(T entity);
+
+    /**
+     * Guarda un lote completo con una sola pasada de ordenamiento e
+     * indexación, en lugar de una por entidad.
+     */
+    List<T> saveAll(Collection<T> entities);
+
+    /**
+     * Actualiza las entidades del lote que ya existen; las que no existen se
+     * omiten del resultado, igual que update devuelve null.
+     */
+    List<T> updateAll(Collection<T> entities);
+
     Optional<T> findById(ID id);
 
+    /**
+     * Resuelve varias claves de una vez. El mapa conserva el orden de las
+     * claves recibidas y solo contiene las que existen.
+     */
+    Map<ID, T> findAllById(Collection<ID> ids);
+
+    /**
+     * Instantánea inmutable de todas las entidades en orden de clave. Mientras
+     * no haya escrituras se devuelve la misma instancia (O(1)); es segura de
+     * recorrer aunque se sigan guardando entidades, porque las escrituras
+     * posteriores solo afectan a la siguiente instantánea.
+     */
     List<T> findAll();
+
+    /**
+     * Página de hasta {@code limit} entidades con clave estrictamente mayor
+     * que {@code afterKey}, en orden de clave. Con {@code afterKey} null se
+     * empieza desde el principio; la clave de la última entidad devuelta es
+     * el cursor de la página siguiente.
+     */
+    List<T> findPage(ID afterKey, int limit);
+
+    /**
+     * Recorrido perezoso en orden de clave: solo se procesan las entidades
+     * que el consumidor llegue a pedir. Los repositorios en memoria recorren
+     * directamente su estructura, sin copiarla, así que no se debe escribir
+     * en el repositorio mientras se consume; esta versión por defecto recorre
+     * la instantánea de findAll, que se reconstruye tras cada escritura.
+     */
+    default Stream<T> stream() {
+        return findAll().stream();
+    }
 }
@@ -0,0 +1,20 @@
+package megaferia.storage;
+
+import core.Publisher;
+import core.Stand;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de stands que además registra la compra de stands por
+ * editoriales. El enlace se hace dentro del repositorio para que la versión
+ * durable lo registre en el log antes de tocar las entidades.
+ */
+public interface StandStore extends LongRepository<Stand> {
+
+    /**
+     * Enlaza en ambos sentidos cada stand existente con las editoriales que
+     * aún no tenía y devuelve los stands actualizados.
+     */
+    List<Stand> link(Collection<Stand> stands, Collection<Publisher> publishers);
+}
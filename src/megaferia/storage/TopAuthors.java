@@ -0,0 +1,11 @@
+package megaferia.storage;
+
+import java.util.List;
+
+/**
+ * Autores con más editoriales distintas entre sus libros: cuántas son y los
+ * ids de quienes las alcanzan, en orden de id. Si ningún autor tiene libros
+ * {@code publishers} es 0 y la lista está vacía.
+ */
+public record TopAuthors(int publishers, List<Long> authorIds) {
+}
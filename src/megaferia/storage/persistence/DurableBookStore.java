@@ -0,0 +1,82 @@
+package megaferia.storage.persistence;
+
+import core.Book;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import megaferia.storage.BookDraft;
+import megaferia.storage.BookStore;
+import megaferia.storage.TopAuthors;
+
+/**
+ * {@link DurableRepository} de libros que además expone las consultas por
+ * índice del repositorio en memoria. Las altas de {@link #createAll} se
+ * registran a partir del borrador y el libro se construye (y se enlaza)
+ * recién al aplicar el registro.
+ */
+public class DurableBookStore extends DurableRepository<Book, String> implements BookStore {
+
+    private final BookStore delegate;
+
+    DurableBookStore(BookStore delegate, DurableStorage storage) {
+        super(delegate, storage, Book::getIsbn, EntityCodec::writeBook,
+                RecordType.BOOK_SAVED, RecordType.BOOK_UPDATED);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Book> createAll(List<BookDraft> drafts) {
+        List<String> isbns = new ArrayList<>(drafts.size());
+        List<BookDraft> accepted = new ArrayList<>(drafts.size());
+        return writeIfAbsent(RecordType.BOOK_SAVED, isbns, () -> {
+            Set<String> batch = new HashSet<>();
+            List<byte[]> payloads = new ArrayList<>(drafts.size());
+            for (BookDraft draft : drafts) {
+                if (!isTaken(draft.getIsbn()) && batch.add(draft.getIsbn())) {
+                    payloads.add(EntityCodec.toBytes(draft, EntityCodec::writeDraft));
+                    accepted.add(draft);
+                }
+            }
+            for (BookDraft draft : accepted) {
+                isbns.add(draft.getIsbn());
+            }
+            return payloads;
+        }, () -> delegate.createAll(accepted));
+    }
+
+    @Override
+    public List<Book> findByFormat(String format) {
+        return delegate.findByFormat(format);
+    }
+
+    @Override
+    public List<Book> findByGenre(String genre) {
+        return delegate.findByGenre(genre);
+    }
+
+    @Override
+    public List<Book> findByType(Class<? extends Book> type) {
+        return delegate.findByType(type);
+    }
+
+    @Override
+    public List<Book> findByPublisher(String nit) {
+        return delegate.findByPublisher(nit);
+    }
+
+    @Override
+    public List<Book> findByAuthor(long authorId) {
+        return delegate.findByAuthor(authorId);
+    }
+
+    @Override
+    public TopAuthors findTopAuthorsByPublishers() {
+        return delegate.findTopAuthorsByPublishers();
+    }
+
+    @Override
+    public List<Book> findByPrefix(String prefix, int offset, int limit) {
+        return delegate.findByPrefix(prefix, offset, limit);
+    }
+}
@@ -0,0 +1,29 @@
+package megaferia.storage.persistence;
+
+import java.util.Optional;
+import java.util.function.Function;
+import megaferia.storage.LongRepository;
+
+/**
+ * {@link DurableRepository} de clave numérica que además expone la
+ * búsqueda por id primitivo del repositorio en memoria.
+ */
+public class DurableLongRepository<T> extends DurableRepository<T, Long> implements LongRepository<T> {
+
+    private final LongRepository<T> delegate;
+
+    DurableLongRepository(LongRepository<T> delegate,
+                          DurableStorage storage,
+                          Function<T, Long> keyOf,
+                          EntityCodec.Writer<T> writer,
+                          RecordType savedType,
+                          RecordType updatedType) {
+        super(delegate, storage, keyOf, writer, savedType, updatedType);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<T> findById(long id) {
+        return delegate.findById(id);
+    }
+}
@@ -0,0 +1,163 @@
+package megaferia.storage.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import megaferia.storage.Repository;
+
+/**
+ * Decorador que hace durable cualquier repositorio en memoria: cada save y
+ * update se escribe primero en el log y solo después se aplica al
+ * repositorio. Las lecturas van directo al repositorio envuelto. Si el log
+ * falla se lanza {@link UncheckedIOException} y la escritura no se aplica.
+ * El par escribir-aplicar lo coordina {@link DurableStorage} para que una
+ * instantánea nunca vea un registro en el log sin su efecto en memoria.
+ */
+public class DurableRepository<T, ID> implements Repository<T, ID> {
+
+    private final Repository<T, ID> delegate;
+    private final DurableStorage storage;
+    private final Function<T, ID> keyOf;
+    private final EntityCodec.Writer<T> writer;
+    private final RecordType savedType;
+    private final RecordType updatedType;
+    // claves con un alta ya en el log pero aún sin aplicar; se toca solo con
+    // el candado de escritura de DurableStorage
+    private final Set<ID> reserved = new HashSet<>();
+
+    DurableRepository(Repository<T, ID> delegate,
+                      DurableStorage storage,
+                      Function<T, ID> keyOf,
+                      EntityCodec.Writer<T> writer,
+                      RecordType savedType,
+                      RecordType updatedType) {
+        this.delegate = delegate;
+        this.storage = storage;
+        this.keyOf = keyOf;
+        this.writer = writer;
+        this.savedType = savedType;
+        this.updatedType = updatedType;
+    }
+
+    @Override
+    public T save(T entity) {
+        return write(savedType, List.of(EntityCodec.toBytes(entity, writer)),
+                () -> delegate.save(entity));
+    }
+
+    @Override
+    public boolean saveIfAbsent(T entity) {
+        ID key = keyOf.apply(entity);
+        byte[] payload = EntityCodec.toBytes(entity, writer);
+        List<ID> keys = new ArrayList<>(1);
+        return writeIfAbsent(savedType, keys, () -> {
+            if (isTaken(key)) {
+                return List.of();
+            }
+            keys.add(key);
+            return List.of(payload);
+        }, () -> !keys.isEmpty() && delegate.saveIfAbsent(entity));
+    }
+
+    @Override
+    public T update(T entity) {
+        if (delegate.findById(keyOf.apply(entity)).isEmpty()) {
+            return null;
+        }
+        return write(updatedType, List.of(EntityCodec.toBytes(entity, writer)),
+                () -> delegate.update(entity));
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        return write(savedType, encodeAll(entities), () -> delegate.saveAll(entities));
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        List<T> existing = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            if (delegate.findById(keyOf.apply(entity)).isPresent()) {
+                existing.add(entity);
+            }
+        }
+        return write(updatedType, encodeAll(existing), () -> delegate.updateAll(existing));
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Map<ID, T> findAllById(Collection<ID> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<T> findPage(ID afterKey, int limit) {
+        return delegate.findPage(afterKey, limit);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return delegate.stream();
+    }
+
+    private List<byte[]> encodeAll(Collection<T> entities) {
+        List<byte[]> payloads = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            payloads.add(EntityCodec.toBytes(entity, writer));
+        }
+        return payloads;
+    }
+
+    protected <R> R write(RecordType type, List<byte[]> payloads, Supplier<R> apply) {
+        try {
+            return storage.logAndApply(type, payloads, apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el log de la feria.", e);
+        }
+    }
+
+    /**
+     * Alta condicionada: {@code prepare} corre con el candado de escritura,
+     * descarta lo que ya esté tomado (ver {@link #isTaken}), deja en
+     * {@code keys} las claves que sí registra y devuelve sus registros. Esas
+     * claves quedan reservadas hasta que el alta se aplica o falla, así que
+     * dos altas de la misma clave nunca llegan ambas al log.
+     */
+    protected <R> R writeIfAbsent(RecordType type, Collection<ID> keys,
+                                  Supplier<List<byte[]>> prepare, Supplier<R> apply) {
+        Supplier<List<byte[]>> reserving = () -> {
+            List<byte[]> payloads = prepare.get();
+            reserved.addAll(keys);
+            return payloads;
+        };
+        try {
+            return storage.logAndApply(type, reserving, apply, () -> reserved.removeAll(keys));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el log de la feria.", e);
+        }
+    }
+
+    /** Si la clave ya existe o tiene un alta en curso. Solo dentro de {@code prepare}. */
+    protected boolean isTaken(ID key) {
+        return reserved.contains(key) || delegate.findById(key).isPresent();
+    }
+
+}
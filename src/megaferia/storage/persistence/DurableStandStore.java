@@ -0,0 +1,46 @@
+package megaferia.storage.persistence;
+
+import core.Publisher;
+import core.Stand;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import megaferia.storage.StandStore;
+
+/**
+ * {@link DurableLongRepository} de stands. Una compra se registra con la
+ * imagen que tendrá cada stand después del enlace, y el enlace sobre las
+ * entidades en memoria se hace recién al aplicar ese registro.
+ */
+public class DurableStandStore extends DurableLongRepository<Stand> implements StandStore {
+
+    private final StandStore delegate;
+
+    DurableStandStore(StandStore delegate, DurableStorage storage) {
+        super(delegate, storage, Stand::getId, EntityCodec::writeStand,
+                RecordType.STAND_SAVED, RecordType.STAND_UPDATED);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Stand> link(Collection<Stand> stands, Collection<Publisher> publishers) {
+        List<Stand> existing = new ArrayList<>(stands.size());
+        List<byte[]> payloads = new ArrayList<>(stands.size());
+        for (Stand stand : stands) {
+            if (delegate.findById(stand.getId()).isEmpty()) {
+                continue;
+            }
+            Set<String> nits = new LinkedHashSet<>(EntityCodec.publisherNits(stand));
+            for (Publisher publisher : publishers) {
+                nits.add(publisher.getNit());
+            }
+            List<String> linked = new ArrayList<>(nits);
+            existing.add(stand);
+            payloads.add(EntityCodec.toBytes(stand, (s, out) ->
+                    EntityCodec.writeStand(s.getId(), s.getPrice(), linked, out)));
+        }
+        return write(RecordType.STAND_UPDATED, payloads, () -> delegate.link(existing, publishers));
+    }
+}
@@ -0,0 +1,404 @@
+package megaferia.storage.persistence;
+
+import core.Author;
+import core.Manager;
+import core.Narrator;
+import core.Publisher;
+import core.Stand;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import megaferia.storage.BookRepository;
+import megaferia.storage.BookStore;
+import megaferia.storage.ConcurrentLongRepository;
+import megaferia.storage.ConcurrentRepository;
+import megaferia.storage.LongRepository;
+import megaferia.storage.Repository;
+import megaferia.storage.StandRepository;
+import megaferia.storage.StandStore;
+
+/**
+ * Almacenamiento durable de la feria: los seis repositorios en memoria
+ * envueltos en {@link DurableRepository} sobre un único log compartido, para
+ * que el orden de los registros respete las dependencias entre entidades
+ * (un libro siempre se registra después de sus autores y su editorial).
+ *
+ * <p>El log se divide en segmentos {@code megaferia-N.wal}. Cada cierto
+ * número de registros se toma una instantánea {@code snapshot-N.bin} con
+ * todo lo anterior al segmento N y se borran los segmentos viejos, así que
+ * al arrancar solo se carga la última instantánea (mapeada en memoria) y se
+ * reproducen los segmentos posteriores.
+ */
+public class DurableStorage implements Closeable {
+
+    public static final long DEFAULT_SNAPSHOT_THRESHOLD = 100_000;
+
+    private static final String SEGMENT_PREFIX = "megaferia-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final long CHECK_PERIOD_SECONDS = 10;
+
+    private final StandRepository stands = new StandRepository();
+    // personas y editoriales se leen desde varios hilos (ventana, reportes,
+    // exportación) mientras se aplican escrituras: van en repositorios
+    // concurrentes
+    private final ConcurrentLongRepository<Author> authors = new ConcurrentLongRepository<>(Author::getId);
+    private final ConcurrentLongRepository<Manager> managers = new ConcurrentLongRepository<>(Manager::getId);
+    private final ConcurrentLongRepository<Narrator> narrators = new ConcurrentLongRepository<>(Narrator::getId);
+    private final ConcurrentRepository<Publisher, String> publishers =
+            new ConcurrentRepository<>(Publisher::getNit, Comparator.naturalOrder());
+    private final BookRepository books = new BookRepository();
+    private final EntityCodec codec = new EntityCodec(authors, managers, narrators, publishers);
+
+    private final Path directory;
+    private final long snapshotThreshold;
+    // cada escritura recibe un turno al encolar su registro y se aplica en
+    // ese mismo orden; solo la espera del fsync ocurre fuera del candado, y
+    // ahí es donde se agrupan los commits
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition turnDone = writeLock.newCondition();
+    private long issued;
+    private long applied;
+    private boolean capturing;
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ScheduledExecutorService snapshotter;
+    private volatile IOException snapshotFailure;
+
+    private volatile WriteAheadLog log;
+    private long generation;
+
+    private final StandStore durableStands;
+    private final LongRepository<Author> durableAuthors;
+    private final LongRepository<Manager> durableManagers;
+    private final LongRepository<Narrator> durableNarrators;
+    private final Repository<Publisher, String> durablePublishers;
+    private final BookStore durableBooks;
+
+    private DurableStorage(Path directory, long snapshotThreshold) throws IOException {
+        this.directory = directory;
+        this.snapshotThreshold = snapshotThreshold;
+        Files.createDirectories(directory);
+
+        long base = 0;
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            base = FairSnapshot.loadInto(snapshotPath(snapshots.get(snapshots.size() - 1)), codec,
+                    managers, authors, narrators, publishers, stands, books);
+        }
+
+        List<Long> segments = new ArrayList<>();
+        for (long segment : generations(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment >= base) {
+                segments.add(segment);
+            }
+        }
+        this.generation = segments.isEmpty() ? base : segments.get(segments.size() - 1);
+        for (long segment : segments) {
+            if (segment != generation) {
+                WriteAheadLog.replay(segmentPath(segment), this::apply);
+            }
+        }
+        this.log = WriteAheadLog.open(segmentPath(generation), this::apply);
+        deleteObsolete(base);
+
+        this.durableStands = new DurableStandStore(stands, this);
+        this.durableAuthors = new DurableLongRepository<>(authors, this, Author::getId,
+                EntityCodec::writePerson, RecordType.AUTHOR_SAVED, RecordType.AUTHOR_UPDATED);
+        this.durableManagers = new DurableLongRepository<>(managers, this, Manager::getId,
+                EntityCodec::writePerson, RecordType.MANAGER_SAVED, RecordType.MANAGER_UPDATED);
+        this.durableNarrators = new DurableLongRepository<>(narrators, this, Narrator::getId,
+                EntityCodec::writePerson, RecordType.NARRATOR_SAVED, RecordType.NARRATOR_UPDATED);
+        this.durablePublishers = new DurableRepository<>(publishers, this, Publisher::getNit,
+                EntityCodec::writePublisher, RecordType.PUBLISHER_SAVED, RecordType.PUBLISHER_UPDATED);
+        this.durableBooks = new DurableBookStore(books, this);
+
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "megaferia-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(this::snapshotIfNeeded,
+                CHECK_PERIOD_SECONDS, CHECK_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static DurableStorage open(Path directory) throws IOException {
+        return new DurableStorage(directory, DEFAULT_SNAPSHOT_THRESHOLD);
+    }
+
+    /**
+     * Abre el almacenamiento tomando una instantánea cada vez que el segmento
+     * actual del log llega a {@code snapshotThreshold} registros.
+     */
+    public static DurableStorage open(Path directory, long snapshotThreshold) throws IOException {
+        return new DurableStorage(directory, snapshotThreshold);
+    }
+
+    public StandStore stands() {
+        return durableStands;
+    }
+
+    public LongRepository<Author> authors() {
+        return durableAuthors;
+    }
+
+    public LongRepository<Manager> managers() {
+        return durableManagers;
+    }
+
+    public LongRepository<Narrator> narrators() {
+        return durableNarrators;
+    }
+
+    public Repository<Publisher, String> publishers() {
+        return durablePublishers;
+    }
+
+    public BookStore books() {
+        return durableBooks;
+    }
+
+    public WriteAheadLog getLog() {
+        return log;
+    }
+
+    /**
+     * Error de la última instantánea automática, o null si la última salió
+     * bien. Mientras falle, el log sigue siendo válido y se reintenta en la
+     * siguiente revisión.
+     */
+    public IOException getSnapshotFailure() {
+        return snapshotFailure;
+    }
+
+    /**
+     * Toma una instantánea ahora. Los escritores solo se detienen mientras se
+     * terminan de aplicar los registros ya encolados, se capturan las listas
+     * y se rota el segmento del log; la escritura del archivo y el borrado de
+     * segmentos viejos ocurren sin bloquearlos.
+     */
+    public void snapshot() throws IOException {
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return; // ya hay una en curso
+        }
+        try {
+            FairSnapshot image;
+            WriteAheadLog previous;
+            writeLock.lock();
+            try {
+                // no se dan turnos nuevos y se espera a los pendientes: la
+                // instantánea incluye todo lo que quedó en el segmento viejo
+                capturing = true;
+                while (applied != issued) {
+                    turnDone.awaitUninterruptibly();
+                }
+                image = FairSnapshot.capture(generation + 1,
+                        managers, authors, narrators, publishers, stands, books);
+                previous = log;
+                log = WriteAheadLog.open(segmentPath(generation + 1), (type, payload) -> { });
+                generation++;
+            } finally {
+                capturing = false;
+                turnDone.signalAll();
+                writeLock.unlock();
+            }
+            previous.close();
+            image.writeTo(snapshotPath(image.getGeneration()));
+            deleteObsolete(image.getGeneration());
+        } finally {
+            snapshotRunning.set(false);
+        }
+    }
+
+    /** Cierra el log dejando una instantánea final para que el próximo arranque sea rápido. */
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (log.getRecordCount() > 0) {
+                snapshot();
+            }
+        } finally {
+            log.close();
+        }
+    }
+
+    /**
+     * Registra {@code payloads} y después ejecuta {@code apply}. Los
+     * repositorios en memoria no son seguros para varios hilos, así que las
+     * aplicaciones se hacen de a una y en el orden de los registros en el
+     * log; los hilos que esperan su fsync al mismo tiempo comparten uno solo.
+     */
+    <R> R logAndApply(RecordType type, List<byte[]> payloads, Supplier<R> apply) throws IOException {
+        return logAndApply(type, () -> payloads, apply, () -> { });
+    }
+
+    /**
+     * Como {@link #logAndApply(RecordType, List, Supplier)}, pero los
+     * registros los arma {@code prepare} con el candado de escritura tomado,
+     * así que puede decidir qué registrar según el estado actual (y reservar
+     * claves) sin que otra escritura se cuele. {@code settle} corre también
+     * con el candado, después de aplicar o de fallar, para soltar lo
+     * reservado.
+     */
+    <R> R logAndApply(RecordType type, Supplier<List<byte[]>> prepare, Supplier<R> apply,
+                      Runnable settle) throws IOException {
+        WriteAheadLog current;
+        long seq;
+        long turn;
+        writeLock.lock();
+        try {
+            while (capturing) {
+                turnDone.awaitUninterruptibly();
+            }
+            List<byte[]> payloads = prepare.get();
+            current = log;
+            try {
+                seq = current.enqueue(type, payloads);
+            } catch (IOException | RuntimeException e) {
+                settle.run();
+                throw e;
+            }
+            turn = ++issued;
+        } finally {
+            writeLock.unlock();
+        }
+
+        IOException failure = null;
+        try {
+            current.awaitDurable(seq);
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        writeLock.lock();
+        try {
+            while (applied != turn - 1) {
+                turnDone.awaitUninterruptibly();
+            }
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                return apply.get();
+            } finally {
+                settle.run();
+                // el turno avanza aunque falle, para no trabar a los siguientes
+                applied = turn;
+                turnDone.signalAll();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void snapshotIfNeeded() {
+        if (log.getRecordCount() < snapshotThreshold) {
+            return;
+        }
+        try {
+            snapshot();
+            snapshotFailure = null;
+        } catch (IOException e) {
+            // se reintenta en la siguiente revisión; el log sigue siendo válido
+            snapshotFailure = e;
+        }
+    }
+
+    // Reproducción: se aplica directo a los repositorios en memoria, sin volver a registrar
+    private void apply(RecordType type, byte[] payload) throws IOException {
+        DataInput in = EntityCodec.input(payload);
+        switch (type) {
+            case STAND_SAVED -> stands.save(codec.readStand(in));
+            case STAND_UPDATED -> {
+                long id = in.readLong();
+                double price = in.readDouble();
+                Stand stand = stands.findById(id).orElseThrow(
+                        () -> new IOException("Registro inconsistente: stand " + id + " inexistente."));
+                if (stand.getPrice() == price) {
+                    // compra: se agregan los enlaces que falten al mismo stand
+                    codec.applyStandUpdate(stand, EntityCodec.input(payload));
+                } else {
+                    stands.update(codec.readStand(EntityCodec.input(payload)));
+                }
+            }
+            case AUTHOR_SAVED -> authors.save(EntityCodec.readAuthor(in));
+            case AUTHOR_UPDATED -> authors.update(EntityCodec.readAuthor(in));
+            case MANAGER_SAVED -> managers.save(EntityCodec.readManager(in));
+            case MANAGER_UPDATED -> managers.update(EntityCodec.readManager(in));
+            case NARRATOR_SAVED -> narrators.save(EntityCodec.readNarrator(in));
+            case NARRATOR_UPDATED -> narrators.update(EntityCodec.readNarrator(in));
+            case PUBLISHER_SAVED -> publishers.save(codec.readPublisher(in));
+            case PUBLISHER_UPDATED -> publishers.update(codec.readPublisher(in));
+            case BOOK_SAVED -> books.save(codec.readBook(in));
+            // update reemplaza la entidad y, en libros, la mueve entre los índices
+            case BOOK_UPDATED -> books.update(codec.readBook(in));
+        }
+    }
+
+    private void deleteObsolete(long base) throws IOException {
+        // restos de instantáneas que no llegaron a renombrarse
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(SNAPSHOT_SUFFIX + ".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        for (long segment : generations(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment < base) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+        for (long snapshot : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (snapshot < base) {
+                Files.deleteIfExists(snapshotPath(snapshot));
+            }
+        }
+    }
+
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        found.add(Long.parseLong(
+                                name.substring(prefix.length(), name.length() - suffix.length())));
+                    } catch (NumberFormatException e) {
+                        // archivo ajeno: se ignora
+                    }
+                }
+            });
+        }
+        found.sort(null);
+        return found;
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,300 @@
+package megaferia.storage.persistence;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.Person;
+import core.PrintedBook;
+import core.Publisher;
+import core.Stand;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import megaferia.storage.BookDraft;
+import megaferia.storage.LongRepository;
+import megaferia.storage.Repository;
+
+/**
+ * Formato binario de las entidades de {@code core}. Las referencias entre
+ * entidades se guardan por clave (id del gerente, ids de autores, NIT de la
+ * editorial...) y se resuelven contra los repositorios al leer, de modo que
+ * los constructores vuelven a crear los enlaces en ambos sentidos.
+ */
+public class EntityCodec {
+
+    private static final byte PRINTED = 1;
+    private static final byte DIGITAL = 2;
+    private static final byte AUDIO = 3;
+
+    private final LongRepository<Author> authors;
+    private final LongRepository<Manager> managers;
+    private final LongRepository<Narrator> narrators;
+    private final Repository<Publisher, String> publishers;
+
+    public EntityCodec(LongRepository<Author> authors,
+                       LongRepository<Manager> managers,
+                       LongRepository<Narrator> narrators,
+                       Repository<Publisher, String> publishers) {
+        this.authors = authors;
+        this.managers = managers;
+        this.narrators = narrators;
+        this.publishers = publishers;
+    }
+
+    /**
+     * Serializa con el escritor dado a un arreglo de bytes. Un escritor solo
+     * falla si la entidad no se puede codificar (p. ej. un tipo de libro
+     * desconocido), así que el error se relanza como argumento inválido.
+     */
+    public static <T> byte[] toBytes(T entity, Writer<T> writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            writer.write(entity, new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    public static DataInput input(byte[] payload) {
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    public interface Writer<T> {
+        void write(T entity, DataOutput out) throws IOException;
+    }
+
+    // ---- Stand: id, precio y NIT de las editoriales que lo compraron
+
+    public static void writeStand(Stand stand, DataOutput out) throws IOException {
+        writeStand(stand.getId(), stand.getPrice(), publisherNits(stand), out);
+    }
+
+    public static void writeStand(long id, double price, List<String> publisherNits,
+                                  DataOutput out) throws IOException {
+        out.writeLong(id);
+        out.writeDouble(price);
+        out.writeInt(publisherNits.size());
+        for (String nit : publisherNits) {
+            writeText(nit, out);
+        }
+    }
+
+    public static List<String> publisherNits(Stand stand) {
+        List<String> nits = new ArrayList<>(stand.getPublisherQuantity());
+        for (Publisher publisher : stand.getPublishers()) {
+            nits.add(publisher.getNit());
+        }
+        return nits;
+    }
+
+    public Stand readStand(DataInput in) throws IOException {
+        Stand stand = new Stand(in.readLong(), in.readDouble());
+        readStandLinks(stand, in);
+        return stand;
+    }
+
+    /**
+     * Lee la imagen de un stand ya existente y enlaza las editoriales que aún
+     * no tenía, en ambos sentidos.
+     */
+    public void applyStandUpdate(Stand stand, DataInput in) throws IOException {
+        in.readLong();
+        in.readDouble();
+        readStandLinks(stand, in);
+    }
+
+    private void readStandLinks(Stand stand, DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Publisher publisher = require(publishers.findById(readText(in)), "editorial");
+            if (!stand.getPublishers().contains(publisher)) {
+                stand.addPublisher(publisher);
+                publisher.addStand(stand);
+            }
+        }
+    }
+
+    // ---- Personas: id, nombre y apellido
+
+    public static void writePerson(Person person, DataOutput out) throws IOException {
+        out.writeLong(person.getId());
+        writeText(person.getFirstname(), out);
+        writeText(person.getLastname(), out);
+    }
+
+    public static Author readAuthor(DataInput in) throws IOException {
+        return new Author(in.readLong(), readText(in), readText(in));
+    }
+
+    public static Manager readManager(DataInput in) throws IOException {
+        return new Manager(in.readLong(), readText(in), readText(in));
+    }
+
+    public static Narrator readNarrator(DataInput in) throws IOException {
+        return new Narrator(in.readLong(), readText(in), readText(in));
+    }
+
+    // ---- Editorial: NIT, nombre, dirección e id del gerente
+
+    public static void writePublisher(Publisher publisher, DataOutput out) throws IOException {
+        writeText(publisher.getNit(), out);
+        writeText(publisher.getName(), out);
+        writeText(publisher.getAddress(), out);
+        out.writeLong(publisher.getManager().getId());
+    }
+
+    public Publisher readPublisher(DataInput in) throws IOException {
+        String nit = readText(in);
+        String name = readText(in);
+        String address = readText(in);
+        Manager manager = require(managers.findById(in.readLong()), "gerente");
+        return new Publisher(nit, name, address, manager);
+    }
+
+    // ---- Libro: datos comunes, ids de autores y los campos de cada subtipo
+
+    public static void writeBook(Book book, DataOutput out) throws IOException {
+        byte kind;
+        if (book instanceof PrintedBook) {
+            kind = PRINTED;
+        } else if (book instanceof DigitalBook) {
+            kind = DIGITAL;
+        } else if (book instanceof Audiobook) {
+            kind = AUDIO;
+        } else {
+            throw new IOException("Tipo de libro no soportado: " + book.getClass().getName());
+        }
+        writeBookCommon(kind, book.getTitle(), book.getIsbn(), book.getGenre(), book.getFormat(),
+                book.getValue(), book.getPublisher(), book.getAuthors(), out);
+
+        if (book instanceof PrintedBook printed) {
+            out.writeInt(printed.getPages());
+            out.writeInt(printed.getCopies());
+        } else if (book instanceof DigitalBook digital) {
+            writeHyperlink(digital.hasHyperlink() ? digital.getHyperlink() : null, out);
+        } else if (book instanceof Audiobook audio) {
+            out.writeInt(audio.getDuration());
+            out.writeLong(audio.getNarrador().getId());
+        }
+    }
+
+    /** Mismo formato que {@link #writeBook} para un libro que aún no se construyó. */
+    public static void writeDraft(BookDraft draft, DataOutput out) throws IOException {
+        byte kind = switch (draft.getType()) {
+            case PRINTED -> PRINTED;
+            case DIGITAL -> DIGITAL;
+            case AUDIOBOOK -> AUDIO;
+        };
+        writeBookCommon(kind, draft.getTitle(), draft.getIsbn(), draft.getGenre(), draft.getFormat(),
+                draft.getValue(), draft.getPublisher(), draft.getAuthors(), out);
+
+        switch (draft.getType()) {
+            case PRINTED -> {
+                out.writeInt(draft.getPages());
+                out.writeInt(draft.getCopies());
+            }
+            case DIGITAL -> writeHyperlink(draft.getHyperlink(), out);
+            case AUDIOBOOK -> {
+                out.writeInt(draft.getDuration());
+                out.writeLong(draft.getNarrator().getId());
+            }
+        }
+    }
+
+    private static void writeBookCommon(byte kind, String title, String isbn, String genre,
+                                        String format, double value, Publisher publisher,
+                                        List<Author> bookAuthors, DataOutput out) throws IOException {
+        out.writeByte(kind);
+        writeText(title, out);
+        writeText(isbn, out);
+        writeText(genre, out);
+        writeText(format, out);
+        out.writeDouble(value);
+        writeText(publisher.getNit(), out);
+        out.writeInt(bookAuthors.size());
+        for (Author author : bookAuthors) {
+            out.writeLong(author.getId());
+        }
+    }
+
+    private static void writeHyperlink(String hyperlink, DataOutput out) throws IOException {
+        out.writeBoolean(hyperlink != null);
+        if (hyperlink != null) {
+            writeText(hyperlink, out);
+        }
+    }
+
+    public Book readBook(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        String title = readText(in);
+        String isbn = readText(in);
+        String genre = readText(in);
+        String format = readText(in);
+        double value = in.readDouble();
+        Publisher publisher = require(publishers.findById(readText(in)), "editorial");
+        int authorCount = in.readInt();
+        ArrayList<Author> bookAuthors = new ArrayList<>(authorCount);
+        for (int i = 0; i < authorCount; i++) {
+            bookAuthors.add(require(authors.findById(in.readLong()), "autor"));
+        }
+
+        switch (kind) {
+            case PRINTED:
+                return new PrintedBook(title, bookAuthors, isbn, genre, format, value, publisher,
+                        in.readInt(), in.readInt());
+            case DIGITAL:
+                if (in.readBoolean()) {
+                    return new DigitalBook(title, bookAuthors, isbn, genre, format, value, publisher,
+                            readText(in));
+                }
+                return new DigitalBook(title, bookAuthors, isbn, genre, format, value, publisher);
+            case AUDIO:
+                int duration = in.readInt();
+                Narrator narrator = require(narrators.findById(in.readLong()), "narrador");
+                return new Audiobook(title, bookAuthors, isbn, genre, format, value, publisher,
+                        duration, narrator);
+            default:
+                throw new IOException("Tipo de libro desconocido: " + kind);
+        }
+    }
+
+    /**
+     * Texto como {@code [largo][bytes UTF-8]}. A diferencia de writeUTF no
+     * tiene el tope de 64 KB; el único límite es el tamaño de un registro
+     * del log.
+     */
+    static void writeText(String text, DataOutput out) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readText(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > WriteAheadLog.MAX_RECORD_BYTES) {
+            throw new IOException("Registro inconsistente: texto de " + length + " bytes.");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T> T require(Optional<T> value, String what) throws IOException {
+        if (value.isEmpty()) {
+            throw new IOException("Registro inconsistente: referencia a " + what + " inexistente.");
+        }
+        return value.get();
+    }
+}
@@ -0,0 +1,209 @@
+package megaferia.storage.persistence;
+
+import core.Author;
+import core.Book;
+import core.Manager;
+import core.Narrator;
+import core.Publisher;
+import core.Stand;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import megaferia.storage.Repository;
+
+/**
+ * Instantánea binaria compacta de toda la feria. Se captura en memoria con
+ * los escritores detenidos (solo referencias a las listas inmutables de
+ * findAll y una copia de los enlaces stand-editorial, que son lo único
+ * mutable) y luego se escribe en segundo plano.
+ *
+ * <p>Formato: cabecera {@code [MAGIC][VERSION][generación]} y después una
+ * sección por tipo ({@code [cantidad][entidades...]}) en orden de
+ * dependencias: gerentes, autores, narradores, editoriales, stands con sus
+ * NIT y libros.
+ */
+class FairSnapshot {
+
+    private static final int MAGIC = 0x4D464753;
+    private static final int VERSION = 2;
+
+    private final long generation;
+    private final List<Manager> managers;
+    private final List<Author> authors;
+    private final List<Narrator> narrators;
+    private final List<Publisher> publishers;
+    private final List<Stand> stands;
+    private final List<List<String>> standLinks;
+    private final List<Book> books;
+
+    private FairSnapshot(long generation,
+                         List<Manager> managers,
+                         List<Author> authors,
+                         List<Narrator> narrators,
+                         List<Publisher> publishers,
+                         List<Stand> stands,
+                         List<List<String>> standLinks,
+                         List<Book> books) {
+        this.generation = generation;
+        this.managers = managers;
+        this.authors = authors;
+        this.narrators = narrators;
+        this.publishers = publishers;
+        this.stands = stands;
+        this.standLinks = standLinks;
+        this.books = books;
+    }
+
+    /** Debe llamarse sin escrituras en curso. */
+    static FairSnapshot capture(long generation,
+                                Repository<Manager, Long> managers,
+                                Repository<Author, Long> authors,
+                                Repository<Narrator, Long> narrators,
+                                Repository<Publisher, String> publishers,
+                                Repository<Stand, Long> stands,
+                                Repository<Book, String> books) {
+        List<Stand> allStands = stands.findAll();
+        List<List<String>> links = new ArrayList<>(allStands.size());
+        for (Stand stand : allStands) {
+            links.add(EntityCodec.publisherNits(stand));
+        }
+        return new FairSnapshot(generation, managers.findAll(), authors.findAll(),
+                narrators.findAll(), publishers.findAll(), allStands, links, books.findAll());
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Escribe a un temporal, fuerza a disco y lo renombra de forma atómica.
+     * Después se fuerza también el directorio, para que el renombre sobreviva
+     * a una caída.
+     */
+    void writeTo(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+
+            out.writeInt(managers.size());
+            for (Manager manager : managers) {
+                EntityCodec.writePerson(manager, out);
+            }
+            out.writeInt(authors.size());
+            for (Author author : authors) {
+                EntityCodec.writePerson(author, out);
+            }
+            out.writeInt(narrators.size());
+            for (Narrator narrator : narrators) {
+                EntityCodec.writePerson(narrator, out);
+            }
+            out.writeInt(publishers.size());
+            for (Publisher publisher : publishers) {
+                EntityCodec.writePublisher(publisher, out);
+            }
+            out.writeInt(stands.size());
+            for (int i = 0; i < stands.size(); i++) {
+                Stand stand = stands.get(i);
+                EntityCodec.writeStand(stand.getId(), stand.getPrice(), standLinks.get(i), out);
+            }
+            out.writeInt(books.size());
+            for (Book book : books) {
+                EntityCodec.writeBook(book, out);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(file.toAbsolutePath().getParent());
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // algunos sistemas (Windows) no permiten abrir un directorio; ahí
+            // el renombre ya es durable por sí solo
+            if (!System.getProperty("os.name", "").startsWith("Windows")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Carga una instantánea (mapeada en memoria) sobre repositorios vacíos,
+     * guardando cada sección con un solo saveAll. Devuelve su generación.
+     */
+    static long loadInto(Path file,
+                         EntityCodec codec,
+                         Repository<Manager, Long> managers,
+                         Repository<Author, Long> authors,
+                         Repository<Narrator, Long> narrators,
+                         Repository<Publisher, String> publishers,
+                         Repository<Stand, Long> stands,
+                         Repository<Book, String> books) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new MappedFileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Instantánea con formato desconocido: " + file);
+            }
+            long generation = in.readLong();
+
+            int count = in.readInt();
+            List<Manager> loadedManagers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedManagers.add(EntityCodec.readManager(in));
+            }
+            managers.saveAll(loadedManagers);
+
+            count = in.readInt();
+            List<Author> loadedAuthors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedAuthors.add(EntityCodec.readAuthor(in));
+            }
+            authors.saveAll(loadedAuthors);
+
+            count = in.readInt();
+            List<Narrator> loadedNarrators = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedNarrators.add(EntityCodec.readNarrator(in));
+            }
+            narrators.saveAll(loadedNarrators);
+
+            count = in.readInt();
+            List<Publisher> loadedPublishers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedPublishers.add(codec.readPublisher(in));
+            }
+            publishers.saveAll(loadedPublishers);
+
+            count = in.readInt();
+            List<Stand> loadedStands = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedStands.add(codec.readStand(in));
+            }
+            stands.saveAll(loadedStands);
+
+            count = in.readInt();
+            List<Book> loadedBooks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loadedBooks.add(codec.readBook(in));
+            }
+            books.saveAll(loadedBooks);
+
+            return generation;
+        }
+    }
+}
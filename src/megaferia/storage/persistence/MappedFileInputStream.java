@@ -0,0 +1,73 @@
+package megaferia.storage.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura secuencial de un archivo mapeado en memoria por ventanas, para
+ * cargar instantáneas sin copiar a través de búferes intermedios del
+ * sistema de archivos. Admite archivos de más de 2 GB.
+ */
+class MappedFileInputStream extends InputStream {
+
+    private static final long WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    MappedFileInputStream(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowStart = 0;
+        mapWindow();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, window.remaining());
+        window.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        if (window.hasRemaining()) {
+            return true;
+        }
+        windowStart += window.capacity();
+        if (windowStart >= size) {
+            return false;
+        }
+        mapWindow();
+        return true;
+    }
+
+    private void mapWindow() throws IOException {
+        long length = Math.min(WINDOW_BYTES, size - windowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+    }
+}
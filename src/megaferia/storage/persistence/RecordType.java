@@ -0,0 +1,47 @@
+package megaferia.storage.persistence;
+
+/**
+ * Tipos de registro del log de escritura anticipada. El código es el byte
+ * que se guarda en disco, así que no se deben renumerar.
+ */
+public enum RecordType {
+
+    STAND_SAVED(1),
+    STAND_UPDATED(2),
+    AUTHOR_SAVED(3),
+    AUTHOR_UPDATED(4),
+    MANAGER_SAVED(5),
+    MANAGER_UPDATED(6),
+    NARRATOR_SAVED(7),
+    NARRATOR_UPDATED(8),
+    PUBLISHER_SAVED(9),
+    PUBLISHER_UPDATED(10),
+    BOOK_SAVED(11),
+    BOOK_UPDATED(12);
+
+    private static final RecordType[] BY_CODE = new RecordType[16];
+
+    static {
+        for (RecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    RecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static RecordType fromCode(byte code) {
+        RecordType type = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Tipo de registro desconocido: " + code);
+        }
+        return type;
+    }
+}
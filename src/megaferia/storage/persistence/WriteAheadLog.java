@@ -0,0 +1,274 @@
+package megaferia.storage.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Log de solo anexado con commit agrupado. Cada registro es
+ * {@code [longitud][crc32][tipo][datos]}. Quien llama a append no vuelve
+ * hasta que su registro está en disco, pero los hilos que llegan mientras
+ * otro hace fsync se agrupan y el siguiente líder los escribe con una sola
+ * llamada a {@link FileChannel#force(boolean)}.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + 1;
+
+    /**
+     * Tamaño máximo de un registro (tipo más datos). Una longitud mayor al
+     * reproducir solo puede venir de una cola dañada.
+     */
+    static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    /** Recibe cada registro válido durante la reproducción del log. */
+    public interface RecordHandler {
+        void handle(RecordType type, byte[] payload) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final Object lock = new Object();
+
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private IOException failure;
+    private boolean closed;
+
+    private long records;
+    private long syncs;
+
+    private WriteAheadLog(FileChannel channel, long replayedRecords) {
+        this.channel = channel;
+        this.records = replayedRecords;
+    }
+
+    /**
+     * Reproduce los registros válidos del archivo y lo abre para anexar. Si
+     * el último registro quedó a medias (caída durante la escritura) se
+     * trunca, para que los registros nuevos sigan a datos íntegros.
+     */
+    public static WriteAheadLog open(Path file, RecordHandler handler) throws IOException {
+        long[] replayed = new long[1];
+        RecordHandler counting = (type, payload) -> {
+            handler.handle(type, payload);
+            replayed[0]++;
+        };
+        long validBytes = Files.exists(file) ? replay(file, counting) : 0;
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > validBytes) {
+            channel.truncate(validBytes);
+            channel.force(true);
+        }
+        channel.position(validBytes);
+        return new WriteAheadLog(channel, replayed[0]);
+    }
+
+    /**
+     * Recorre los registros del archivo y devuelve cuántos bytes son válidos.
+     */
+    public static long replay(Path file, RecordHandler handler) throws IOException {
+        long valid = 0;
+        long size = Files.size(file);
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] body;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    // una longitud imposible es una cola dañada: no se
+                    // reserva memoria para ella
+                    long remaining = size - valid - Integer.BYTES * 2;
+                    if (length <= 0 || length > MAX_RECORD_BYTES || length > remaining) {
+                        break;
+                    }
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break; // cola incompleta
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break; // cola corrupta
+                }
+                byte[] payload = new byte[length - 1];
+                System.arraycopy(body, 1, payload, 0, payload.length);
+                handler.handle(RecordType.fromCode(body[0]), payload);
+                valid += HEADER_BYTES - 1 + length;
+            }
+        }
+        return valid;
+    }
+
+    /** Anexa un registro y espera a que sea durable. */
+    public void append(RecordType type, byte[] payload) throws IOException {
+        awaitDurable(enqueue(type, List.of(payload)));
+    }
+
+    /** Anexa varios registros del mismo tipo con un único fsync. */
+    public void appendAll(RecordType type, List<byte[]> payloads) throws IOException {
+        awaitDurable(enqueue(type, payloads));
+    }
+
+    /**
+     * Deja los registros en el búfer del log, en el orden de llamada, sin
+     * esperar el fsync. Devuelve la secuencia que hay que pasar a
+     * {@link #awaitDurable} para saber que ya están en disco.
+     */
+    long enqueue(RecordType type, List<byte[]> payloads) throws IOException {
+        synchronized (lock) {
+            checkUsable();
+            for (byte[] payload : payloads) {
+                checkSize(payload);
+            }
+            for (byte[] payload : payloads) {
+                encode(type, payload);
+            }
+            appendedSeq += payloads.size();
+            return appendedSeq;
+        }
+    }
+
+    /** Registros del archivo: los reproducidos al abrir más los anexados. */
+    public long getRecordCount() {
+        synchronized (lock) {
+            return records;
+        }
+    }
+
+    /** Llamadas a fsync hechas desde que se abrió el log. */
+    public long getSyncCount() {
+        synchronized (lock) {
+            return syncs;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long last;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = appendedSeq;
+        }
+        try {
+            awaitDurable(last);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (closed) {
+            throw new IOException("El log de escritura está cerrado.");
+        }
+        if (failure != null) {
+            throw new IOException("El log de escritura quedó inutilizable.", failure);
+        }
+    }
+
+    private static void checkSize(byte[] payload) throws IOException {
+        if (payload.length + 1 > MAX_RECORD_BYTES) {
+            throw new IOException("El registro supera el tamaño máximo del log.");
+        }
+    }
+
+    // Se llama con el candado tomado
+    private void encode(RecordType type, byte[] payload) {
+        int length = payload.length + 1;
+        if (pending.remaining() < HEADER_BYTES + payload.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(
+                    Math.max(pending.capacity() * 2, pending.position() + HEADER_BYTES + payload.length));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type.getCode());
+        crc.update(payload);
+        pending.putInt(length);
+        pending.putInt((int) crc.getValue());
+        pending.put(type.getCode());
+        pending.put(payload);
+        records++;
+    }
+
+    /**
+     * Espera a que todo lo encolado hasta {@code seq} esté en disco. Si nadie
+     * está haciendo fsync, este hilo se lleva todo lo acumulado.
+     */
+    void awaitDurable(long seq) throws IOException {
+        ByteBuffer batch;
+        long batchSeq;
+        synchronized (lock) {
+            while (true) {
+                if (durableSeq >= seq) {
+                    return;
+                }
+                if (failure != null) {
+                    throw new IOException("El log de escritura quedó inutilizable.", failure);
+                }
+                if (!flushing) {
+                    break;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrumpido esperando el commit del log.");
+                }
+            }
+            // este hilo es el líder: se lleva todo lo acumulado hasta ahora
+            flushing = true;
+            batch = pending;
+            pending = spare;
+            spare = null;
+            batchSeq = appendedSeq;
+        }
+
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+                flushing = false;
+                lock.notifyAll();
+            }
+            throw e;
+        }
+
+        synchronized (lock) {
+            batch.clear();
+            spare = batch;
+            durableSeq = batchSeq;
+            flushing = false;
+            syncs++;
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package megaferia.view;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.AbstractButton;
+import javax.swing.SwingWorker;
+
+/**
+ * Ejecuta las llamadas a los controladores fuera del EDT. Todas pasan por
+ * un único hilo, así que los controladores y repositorios siguen viendo un
+ * solo llamador (como cuando todo corría en el EDT) y las acciones se
+ * aplican en el orden en que el usuario las pidió. Los resultados vuelven
+ * al EDT con {@link SwingWorker}.
+ *
+ * <p>Los métodos públicos se llaman desde el EDT.
+ */
+public class BackgroundTasks implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "megaferia-ui-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // último refresco pedido por clave; solo se toca desde el EDT
+    private final Map<Object, SwingWorker<?, ?>> refreshes = new HashMap<>();
+
+    /**
+     * Acción del usuario (crear, comprar): deshabilita {@code trigger}
+     * mientras corre para que no se envíe dos veces y entrega el resultado
+     * a {@code done} en el EDT.
+     */
+    public <R> void run(AbstractButton trigger, Callable<R> work, Consumer<R> done) {
+        if (trigger != null) {
+            trigger.setEnabled(false);
+        }
+        executor.execute(new SwingWorker<R, Void>() {
+            @Override
+            protected R doInBackground() throws Exception {
+                return work.call();
+            }
+
+            @Override
+            protected void done() {
+                if (trigger != null) {
+                    trigger.setEnabled(true);
+                }
+                done.accept(result(this));
+            }
+        });
+    }
+
+    /**
+     * Consulta que reemplaza la anterior con la misma {@code key}: si el
+     * usuario vuelve a pedirla, la pendiente se cancela y su resultado se
+     * descarta.
+     */
+    public <R> void refresh(Object key, Callable<R> work, Consumer<R> done) {
+        submit(key, new SwingWorker<R, Void>() {
+            @Override
+            protected R doInBackground() throws Exception {
+                return work.call();
+            }
+
+            @Override
+            protected void done() {
+                if (finish(key, this)) {
+                    done.accept(result(this));
+                }
+            }
+        });
+    }
+
+    /**
+     * Como {@link #refresh}, pero el resultado va directo a {@code model}.
+     * Las vistas ya llegan armadas desde el controlador, así que la lista se
+     * entrega completa con un solo aviso a la tabla.
+     */
+    public <T> void load(ViewTableModel<T> model, Callable<? extends List<? extends T>> work) {
+        refresh(model, work, model::setRows);
+    }
+
+    /** Deja de aceptar tareas; las ya encoladas terminan. */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void submit(Object key, SwingWorker<?, ?> worker) {
+        SwingWorker<?, ?> previous = refreshes.put(key, worker);
+        if (previous != null) {
+            // sin interrumpir: un canal de archivo interrumpido se cierra y
+            // dejaría inservible el repositorio persistente
+            previous.cancel(false);
+        }
+        executor.execute(worker);
+    }
+
+    private boolean finish(Object key, SwingWorker<?, ?> worker) {
+        if (refreshes.get(key) != worker) {
+            return false;
+        }
+        refreshes.remove(key);
+        return !worker.isCancelled();
+    }
+
+    private static <R> R result(SwingWorker<R, ?> worker) {
+        try {
+            return worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            // el error del controlador se relanza en el EDT, como antes
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
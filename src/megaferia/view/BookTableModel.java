@@ -0,0 +1,43 @@
+package megaferia.view;
+
+public class BookTableModel extends ViewTableModel<BookView> {
+
+    public BookTableModel() {
+        super("Titulo", "Autores", "ISBN", "Genero", "Formato", "Valor", "Editorial",
+                "Nro. Ejem", "Nro. Pag", "URL", "Narrador", "Duración");
+    }
+
+    @Override
+    protected Object value(BookView book, int column) {
+        BookView.Type type = book.getType();
+        switch (column) {
+            case 0:
+                return book.getTitle();
+            case 1:
+                return book.getAuthorNames();
+            case 2:
+                return book.getIsbn();
+            case 3:
+                return book.getGenre();
+            case 4:
+                return book.getFormat();
+            case 5:
+                return book.getValue();
+            case 6:
+                return book.getPublisherName();
+            case 7:
+                return type == BookView.Type.PRINTED ? (Object) book.getCopies() : "-";
+            case 8:
+                return type == BookView.Type.PRINTED ? (Object) book.getPages() : "-";
+            case 9:
+                if (type != BookView.Type.DIGITAL) {
+                    return "-";
+                }
+                return book.getHyperlink() != null ? book.getHyperlink() : "No";
+            case 10:
+                return type == BookView.Type.AUDIOBOOK ? book.getNarratorName() : "-";
+            default:
+                return type == BookView.Type.AUDIOBOOK ? (Object) book.getDuration() : "-";
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package megaferia.view;
+
+import core.Audiobook;
+import core.Book;
+import core.DigitalBook;
+import core.PrintedBook;
+
+/**
+ * Copia de solo lectura de los datos de un libro, tomada al crear la vista.
+ * Los datos propios de cada tipo son 0 o null cuando no aplican.
+ */
+public final class BookView {
+
+    public enum Type {
+        PRINTED,
+        DIGITAL,
+        AUDIOBOOK
+    }
+
+    private final Type type;
+    private final String title;
+    private final String authorNames;
+    private final String isbn;
+    private final String genre;
+    private final String format;
+    private final double value;
+    private final String publisherNit;
+    private final String publisherName;
+    private final int pages;
+    private final int copies;
+    private final String hyperlink;
+    private final String narratorName;
+    private final int duration;
+
+    private BookView(Book book) {
+        this.title = book.getTitle();
+        this.authorNames = book.getAuthorNames();
+        this.isbn = book.getIsbn();
+        this.genre = book.getGenre();
+        this.format = book.getFormat();
+        this.value = book.getValue();
+        this.publisherNit = book.getPublisher().getNit();
+        this.publisherName = book.getPublisher().getName();
+        if (book instanceof PrintedBook printed) {
+            this.type = Type.PRINTED;
+            this.pages = printed.getPages();
+            this.copies = printed.getCopies();
+        } else {
+            this.type = book instanceof DigitalBook ? Type.DIGITAL : Type.AUDIOBOOK;
+            this.pages = 0;
+            this.copies = 0;
+        }
+        this.hyperlink = book instanceof DigitalBook digital && digital.hasHyperlink()
+                ? digital.getHyperlink()
+                : null;
+        if (book instanceof Audiobook audiobook) {
+            this.narratorName = audiobook.getNarrador().getFullname();
+            this.duration = audiobook.getDuration();
+        } else {
+            this.narratorName = null;
+            this.duration = 0;
+        }
+    }
+
+    public static BookView of(Book book) {
+        return new BookView(book);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /** "Nombre Apellido, Nombre Apellido" de los autores, en su orden. */
+    public String getAuthorNames() {
+        return authorNames;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public String getPublisherNit() {
+        return publisherNit;
+    }
+
+    public String getPublisherName() {
+        return publisherName;
+    }
+
+    public int getPages() {
+        return pages;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    /** Hipervínculo del libro digital; null si no tiene o no es digital. */
+    public String getHyperlink() {
+        return hyperlink;
+    }
+
+    /** Nombre completo del narrador del audiolibro; null para los demás tipos. */
+    public String getNarratorName() {
+        return narratorName;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+}
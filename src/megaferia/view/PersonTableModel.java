@@ -0,0 +1,104 @@
+package megaferia.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Autores, gerentes y narradores en una sola tabla, uno detrás del otro,
+ * sin unir las tres listas en una nueva. Las filas son vistas inmutables
+ * tomadas al cargar, así que repintar no vuelve a leer las entidades.
+ */
+public class PersonTableModel extends ViewTableModel<PersonView> {
+
+    private static final Comparator<PersonView> BY_ID = Comparator.comparingLong(PersonView::getId);
+
+    private List<PersonView> authors = new ArrayList<>();
+    private List<PersonView> managers = new ArrayList<>();
+    private List<PersonView> narrators = new ArrayList<>();
+
+    public PersonTableModel() {
+        super("ID", "Nombre Completo", "Tipo", "Editorial", "Nro. Libros");
+    }
+
+    public void setRows(List<PersonView> authors, List<PersonView> managers, List<PersonView> narrators) {
+        // solo se copian referencias: la tabla no depende de que quien llama
+        // deje de modificar sus listas
+        this.authors = new ArrayList<>(authors);
+        this.managers = new ArrayList<>(managers);
+        this.narrators = new ArrayList<>(narrators);
+        fireTableDataChanged();
+    }
+
+    /** Reemplaza o agrega autores por id, como {@link #mergeRows}. */
+    public void mergeAuthors(List<PersonView> changed) {
+        merge(authors, 0, changed);
+    }
+
+    public void mergeManagers(List<PersonView> changed) {
+        merge(managers, authors.size(), changed);
+    }
+
+    public void mergeNarrators(List<PersonView> changed) {
+        merge(narrators, authors.size() + managers.size(), changed);
+    }
+
+    // cada grupo va ordenado por id; offset es la fila donde empieza el grupo
+    private void merge(List<PersonView> group, int offset, List<PersonView> changed) {
+        for (PersonView person : changed) {
+            int index = Collections.binarySearch(group, person, BY_ID);
+            if (index >= 0) {
+                group.set(index, person);
+                fireTableRowsUpdated(offset + index, offset + index);
+            } else {
+                index = -index - 1;
+                group.add(index, person);
+                fireTableRowsInserted(offset + index, offset + index);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return authors.size() + managers.size() + narrators.size();
+    }
+
+    @Override
+    public PersonView getRow(int rowIndex) {
+        if (rowIndex < authors.size()) {
+            return authors.get(rowIndex);
+        }
+        rowIndex -= authors.size();
+        if (rowIndex < managers.size()) {
+            return managers.get(rowIndex);
+        }
+        return narrators.get(rowIndex - managers.size());
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        PersonView person = getRow(rowIndex);
+        if (columnIndex == 2) {
+            if (rowIndex < authors.size()) {
+                return "Autor";
+            }
+            return rowIndex < authors.size() + managers.size() ? "Gerente" : "Narrador";
+        }
+        return value(person, columnIndex);
+    }
+
+    @Override
+    protected Object value(PersonView person, int column) {
+        switch (column) {
+            case 0:
+                return person.getId();
+            case 1:
+                return person.getFullname();
+            case 3:
+                return person.getPublisherName() != null ? person.getPublisherName() : "-";
+            default:
+                return person.getBookQuantity();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package megaferia.view;
+
+import core.Author;
+import core.Manager;
+import core.Narrator;
+import core.Person;
+import core.Publisher;
+
+/**
+ * Copia de solo lectura de un autor, gerente o narrador, tomada al crear la
+ * vista. No expone la entidad, así que quien la recibe no puede modificar el
+ * repositorio ni ve cambios posteriores.
+ */
+public final class PersonView {
+
+    private final long id;
+    private final String firstname;
+    private final String lastname;
+    private final String fullname;
+    private final int bookQuantity;
+    private final int publisherQuantity;
+    private final String publisherName;
+
+    private PersonView(Person person, int publisherQuantity) {
+        this.id = person.getId();
+        this.firstname = person.getFirstname();
+        this.lastname = person.getLastname();
+        this.fullname = person.getFullname();
+        if (person instanceof Author author) {
+            this.bookQuantity = author.getBookQuantity();
+        } else if (person instanceof Narrator narrator) {
+            this.bookQuantity = narrator.getBookQuantity();
+        } else {
+            this.bookQuantity = 0;
+        }
+        this.publisherQuantity = publisherQuantity;
+        Publisher publisher = person instanceof Manager manager ? manager.getPublisher() : null;
+        this.publisherName = publisher == null ? null : publisher.getName();
+    }
+
+    public static PersonView of(Person person) {
+        return new PersonView(person, 0);
+    }
+
+    /**
+     * Vista de un autor del ranking por editoriales, con la cantidad de
+     * editoriales distintas que ya calculó el almacén de libros.
+     */
+    public static PersonView ranked(Author author, int publisherQuantity) {
+        return new PersonView(author, publisherQuantity);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public String getFullname() {
+        return fullname;
+    }
+
+    /** Libros del autor o del narrador; 0 para un gerente. */
+    public int getBookQuantity() {
+        return bookQuantity;
+    }
+
+    /**
+     * Editoriales distintas entre los libros del autor si la vista viene del
+     * ranking ({@link #ranked}); 0 en los demás casos.
+     */
+    public int getPublisherQuantity() {
+        return publisherQuantity;
+    }
+
+    /** Nombre de la editorial del gerente; null si no es gerente o aún no tiene. */
+    public String getPublisherName() {
+        return publisherName;
+    }
+}
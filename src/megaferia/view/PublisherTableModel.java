@@ -0,0 +1,24 @@
+package megaferia.view;
+
+public class PublisherTableModel extends ViewTableModel<PublisherView> {
+
+    public PublisherTableModel() {
+        super("NIT", "Nombre", "Dirección", "Nombre Gerente", "Nro. Stands");
+    }
+
+    @Override
+    protected Object value(PublisherView publisher, int column) {
+        switch (column) {
+            case 0:
+                return publisher.getNit();
+            case 1:
+                return publisher.getName();
+            case 2:
+                return publisher.getAddress();
+            case 3:
+                return publisher.getManager().getFullname();
+            default:
+                return publisher.getStandQuantity();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package megaferia.view;
+
+import core.Publisher;
+
+/**
+ * Copia de solo lectura de una editorial, tomada al crear la vista.
+ */
+public final class PublisherView {
+
+    private final String nit;
+    private final String name;
+    private final String address;
+    private final PersonView manager;
+    private final int standQuantity;
+
+    private PublisherView(Publisher publisher) {
+        this.nit = publisher.getNit();
+        this.name = publisher.getName();
+        this.address = publisher.getAddress();
+        this.manager = PersonView.of(publisher.getManager());
+        this.standQuantity = publisher.getStandQuantity();
+    }
+
+    public static PublisherView of(Publisher publisher) {
+        return new PublisherView(publisher);
+    }
+
+    public String getNit() {
+        return nit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public PersonView getManager() {
+        return manager;
+    }
+
+    public int getStandQuantity() {
+        return standQuantity;
+    }
+}
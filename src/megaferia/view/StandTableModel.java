@@ -0,0 +1,22 @@
+package megaferia.view;
+
+public class StandTableModel extends ViewTableModel<StandView> {
+
+    public StandTableModel() {
+        super("ID", "Precio", "Comprado", "Editoriales");
+    }
+
+    @Override
+    protected Object value(StandView stand, int column) {
+        switch (column) {
+            case 0:
+                return stand.getId();
+            case 1:
+                return stand.getPrice();
+            case 2:
+                return stand.getPublisherQuantity() > 0 ? "Si" : "No";
+            default:
+                return stand.getPublisherNamesText();
+        }
+    }
+}
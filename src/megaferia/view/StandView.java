@@ -0,0 +1,57 @@
+package megaferia.view;
+
+import core.Publisher;
+import core.Stand;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copia de solo lectura de un stand y los nombres de las editoriales que lo
+ * compraron, tomada al crear la vista.
+ */
+public final class StandView {
+
+    private final long id;
+    private final double price;
+    private final List<String> publisherNames;
+    // texto de la columna de editoriales, armado una sola vez
+    private final String publisherNamesText;
+
+    private StandView(Stand stand) {
+        this.id = stand.getId();
+        this.price = stand.getPrice();
+        List<String> names = new ArrayList<>(stand.getPublisherQuantity());
+        for (Publisher publisher : stand.getPublishers()) {
+            names.add(publisher.getName());
+        }
+        this.publisherNames = Collections.unmodifiableList(names);
+        this.publisherNamesText = String.join(", ", names);
+    }
+
+    public static StandView of(Stand stand) {
+        return new StandView(stand);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public int getPublisherQuantity() {
+        return publisherNames.size();
+    }
+
+    /** Nombres de las editoriales que compraron el stand, en orden de compra. */
+    public List<String> getPublisherNames() {
+        return publisherNames;
+    }
+
+    /** Los mismos nombres separados por coma, como los muestra la tabla. */
+    public String getPublisherNamesText() {
+        return publisherNamesText;
+    }
+}
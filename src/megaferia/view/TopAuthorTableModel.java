@@ -0,0 +1,34 @@
+package megaferia.view;
+
+import java.util.List;
+
+/**
+ * Autores empatados con más editoriales distintas; la cantidad es la misma
+ * para todos, así que se calcula una vez al cambiar las filas.
+ */
+public class TopAuthorTableModel extends ViewTableModel<PersonView> {
+
+    private int publishers;
+
+    public TopAuthorTableModel() {
+        super("ID", "Nombre", "Cantidad");
+    }
+
+    @Override
+    public void setRows(List<? extends PersonView> rows) {
+        publishers = rows == null || rows.isEmpty() ? 0 : rows.get(0).getPublisherQuantity();
+        super.setRows(rows);
+    }
+
+    @Override
+    protected Object value(PersonView author, int column) {
+        switch (column) {
+            case 0:
+                return author.getId();
+            case 1:
+                return author.getFullname();
+            default:
+                return publishers;
+        }
+    }
+}
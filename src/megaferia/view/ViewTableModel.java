@@ -0,0 +1,87 @@
+package megaferia.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla de solo lectura sobre una lista de vistas. No copia
+ * filas: cada celda se lee de la lista cuando la tabla la pinta, así que
+ * mostrar la instantánea de un repositorio grande cuesta lo mismo que una
+ * pequeña. {@link #setRows} reemplaza la lista con un único evento y
+ * {@link #mergeRows} cambia solo las filas de un aviso.
+ */
+public abstract class ViewTableModel<T> extends AbstractTableModel {
+
+    private final String[] columns;
+    private List<? extends T> rows = List.of();
+    // copia propia de las filas, hecha al primer mergeRows tras un setRows
+    private List<T> merged;
+
+    protected ViewTableModel(String... columns) {
+        this.columns = columns;
+    }
+
+    public void setRows(List<? extends T> rows) {
+        this.rows = rows == null ? List.of() : rows;
+        this.merged = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Reemplaza las filas con la misma posición en {@code order} y agrega las
+     * que faltan donde corresponden, avisando solo de esas filas. Las filas
+     * mostradas deben estar ordenadas por {@code order}, como las devuelven
+     * los repositorios.
+     */
+    public void mergeRows(List<? extends T> changed, Comparator<? super T> order) {
+        if (merged == null) {
+            merged = new ArrayList<>(rows);
+            rows = merged;
+        }
+        for (T row : changed) {
+            int index = Collections.binarySearch(merged, row, order);
+            if (index >= 0) {
+                merged.set(index, row);
+                fireTableRowsUpdated(index, index);
+            } else {
+                index = -index - 1;
+                merged.add(index, row);
+                fireTableRowsInserted(index, index);
+            }
+        }
+    }
+
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return value(rows.get(rowIndex), columnIndex);
+    }
+
+    protected abstract Object value(T row, int column);
+}
@@ -0,0 +1,48 @@
+package megaferia.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utilidades de las vistas de solo lectura.
+ */
+public final class Views {
+
+    private Views() {
+    }
+
+    /**
+     * Lista inmutable con la vista de cada elemento de {@code source}. Las
+     * vistas se crean ya, en el hilo que llama al controlador: copian los
+     * datos de las entidades, así que la tabla que las pinte en el EDT no
+     * vuelve a tocar las entidades mientras otro hilo las modifica.
+     */
+    public static <S, V> List<V> mapped(List<? extends S> source, Function<? super S, ? extends V> view) {
+        List<V> views = new ArrayList<>(source.size());
+        for (S item : source) {
+            views.add(view.apply(item));
+        }
+        return Collections.unmodifiableList(views);
+    }
+
+    /**
+     * Vistas de los elementos de {@code byId} en el orden de {@code ids}
+     * (el de una consulta {@code findAllById}); los ids sin elemento se
+     * omiten.
+     */
+    public static <K, S, V> List<V> mapped(Map<K, ? extends S> byId, Collection<K> ids,
+                                           Function<? super S, ? extends V> view) {
+        List<V> views = new ArrayList<>(byId.size());
+        for (K id : ids) {
+            S item = byId.get(id);
+            if (item != null) {
+                views.add(view.apply(item));
+            }
+        }
+        return Collections.unmodifiableList(views);
+    }
+}
@@ -0,0 +1,148 @@
+package megaferia.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import core.Audiobook;
+import core.Author;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import java.util.ArrayList;
+import java.util.List;
+import megaferia.observer.ChangeEvent;
+import megaferia.observer.Observer;
+import megaferia.response.Response;
+import megaferia.response.StatusCode;
+import megaferia.storage.AuthorRepository;
+import megaferia.storage.BookRepository;
+import megaferia.storage.NarratorRepository;
+import megaferia.storage.PublisherRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BookControllerImportTest {
+
+    private static final String NIT = "123.456.789-1";
+
+    private BookRepository books;
+    private BookController controller;
+    private final List<ChangeEvent> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        books = new BookRepository();
+        AuthorRepository authors = new AuthorRepository();
+        PublisherRepository publishers = new PublisherRepository();
+        NarratorRepository narrators = new NarratorRepository();
+        authors.save(new Author(1, "Ana", "Pérez"));
+        authors.save(new Author(2, "Luis", "Gómez"));
+        publishers.save(new Publisher(NIT, "Norte", "Calle 1", new Manager(10, "Eva", "Ruiz")));
+        narrators.save(new Narrator(20, "Sara", "Mora"));
+
+        controller = new BookController(books, authors, publishers, narrators);
+        controller.registerObserver(new Observer() {
+            @Override
+            public void update(String dataType) {
+                throw new AssertionError("se esperaba un aviso con claves");
+            }
+
+            @Override
+            public void onChange(ChangeEvent event) {
+                events.add(event);
+            }
+        });
+    }
+
+    private static BookImportRow printed(String isbn) {
+        return BookImportRow.printed("Impreso", List.of(1L), isbn, "Novela", "Pasta dura",
+                "50", NIT, "300", "2");
+    }
+
+    @Test
+    public void importsEveryKindOfBook() {
+        Response<BookImportResult> response = controller.importBooks(List.of(
+                printed("978-1-23-456789-0"),
+                BookImportRow.digital("Digital", List.of(1L, 2L), "978-1-23-456789-1", "Ensayo",
+                        "EPUB", "20", NIT, " "),
+                BookImportRow.audiobook("Audio", List.of(2L), "978-1-23-456789-2", "Poesía",
+                        "MP3", "30", NIT, "20", "90")));
+
+        assertEquals(StatusCode.OK, response.getStatus());
+        BookImportResult result = response.getData();
+        assertEquals(3, result.getCreatedCount());
+        assertEquals(0, result.getRejectedCount());
+        for (Response<String> row : result.getRows()) {
+            assertEquals(StatusCode.CREATED, row.getStatus());
+        }
+        assertEquals("978-1-23-456789-1", result.getRows().get(1).getData());
+
+        assertTrue(books.findById("978-1-23-456789-0").get() instanceof PrintedBook);
+        DigitalBook digital = (DigitalBook) books.findById("978-1-23-456789-1").get();
+        assertFalse(digital.hasHyperlink());
+        Audiobook audiobook = (Audiobook) books.findById("978-1-23-456789-2").get();
+        assertEquals(20, audiobook.getNarrador().getId());
+        assertEquals(2, books.findByAuthor(1).size());
+
+        assertEquals(1, events.size());
+        assertEquals(ChangeEvent.Kind.CREATED, events.get(0).getKind());
+        assertEquals(List.of("978-1-23-456789-0", "978-1-23-456789-1", "978-1-23-456789-2"),
+                events.get(0).getKeys());
+    }
+
+    @Test
+    public void rejectedRowsKeepTheirPositionAndDoNotStopTheBatch() {
+        controller.importBooks(List.of(printed("978-0-00-000000-0")));
+        events.clear();
+
+        Response<BookImportResult> response = controller.importBooks(List.of(
+                printed("978-1-23-456789-0"),
+                printed("no es un isbn"),
+                printed("978-0-00-000000-0"),
+                BookImportRow.printed("Impreso", List.of(99L), "978-1-23-456789-3", "Novela",
+                        "Pasta dura", "50", NIT, "300", "2"),
+                BookImportRow.audiobook("Audio", List.of(1L), "978-1-23-456789-4", "Poesía",
+                        "MP3", "30", NIT, "77", "90"),
+                printed("978-1-23-456789-0"),
+                BookImportRow.printed("Impreso", List.of(1L), "978-1-23-456789-5", "Novela",
+                        "Pasta dura", "50", NIT, "cero", "2")));
+
+        BookImportResult result = response.getData();
+        assertEquals(StatusCode.OK, response.getStatus());
+        assertEquals(1, result.getCreatedCount());
+        assertEquals(6, result.getRejectedCount());
+
+        List<StatusCode> statuses = new ArrayList<>();
+        for (Response<String> row : result.getRows()) {
+            statuses.add(row.getStatus());
+        }
+        assertEquals(List.of(StatusCode.CREATED, StatusCode.BAD_REQUEST, StatusCode.CONFLICT,
+                StatusCode.NOT_FOUND, StatusCode.NOT_FOUND, StatusCode.CONFLICT,
+                StatusCode.BAD_REQUEST), statuses);
+
+        assertEquals(2, books.findAll().size());
+        assertEquals(1, events.size());
+        assertEquals(List.of("978-1-23-456789-0"), events.get(0).getKeys());
+    }
+
+    @Test
+    public void emptyImportIsABadRequest() {
+        assertEquals(StatusCode.BAD_REQUEST, controller.importBooks(List.of()).getStatus());
+        assertEquals(StatusCode.BAD_REQUEST, controller.importBooks(null).getStatus());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void batchWithOnlyInvalidRowsSavesNothing() {
+        Response<BookImportResult> response = controller.importBooks(List.of(
+                BookImportRow.printed(" ", List.of(1L), "978-1-23-456789-0", "Novela",
+                        "Pasta dura", "50", NIT, "300", "2")));
+
+        assertEquals(0, response.getData().getCreatedCount());
+        assertEquals(0, books.findAll().size());
+        assertTrue(events.isEmpty());
+    }
+}
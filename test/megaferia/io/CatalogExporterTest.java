@@ -0,0 +1,172 @@
+package megaferia.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import core.Stand;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import megaferia.controller.BookController;
+import megaferia.controller.PersonController;
+import megaferia.controller.PublisherController;
+import megaferia.controller.StandController;
+import megaferia.storage.AuthorRepository;
+import megaferia.storage.BookRepository;
+import megaferia.storage.ManagerRepository;
+import megaferia.storage.NarratorRepository;
+import megaferia.storage.PublisherRepository;
+import megaferia.storage.StandRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CatalogExporterTest {
+
+    private static final String NIT = "123.456.789-1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Repositorios con los mismos autores, editorial y narrador en cada instancia. */
+    private static final class Fair {
+
+        final BookRepository books = new BookRepository();
+        final StandRepository stands = new StandRepository();
+        final AuthorRepository authors = new AuthorRepository();
+        final ManagerRepository managers = new ManagerRepository();
+        final NarratorRepository narrators = new NarratorRepository();
+        final PublisherRepository publishers = new PublisherRepository();
+
+        Fair() {
+            authors.save(new Author(1, "Ana", "Pérez"));
+            authors.save(new Author(2, "Luis", "Gómez"));
+            Manager manager = new Manager(10, "Eva", "Ruiz");
+            managers.save(manager);
+            publishers.save(new Publisher(NIT, "Norte", "Calle 1", manager));
+            narrators.save(new Narrator(20, "Sara", "Mora"));
+        }
+
+        Author author(long id) {
+            return authors.findById(id).orElseThrow();
+        }
+
+        Publisher publisher() {
+            return publishers.findById(NIT).orElseThrow();
+        }
+
+        CatalogExporter exporter() {
+            return new CatalogExporter(books, stands, authors, managers, narrators);
+        }
+
+        CsvImporter importer() {
+            return new CsvImporter(new StandController(stands, publishers),
+                    new PersonController(authors, managers, narrators),
+                    new PublisherController(publishers, managers),
+                    new BookController(books, authors, publishers, narrators));
+        }
+    }
+
+    private static ArrayList<Author> authors(Author... authors) {
+        return new ArrayList<>(List.of(authors));
+    }
+
+    private Path export(Fair fair) throws IOException {
+        Path file = folder.newFile("libros.csv").toPath();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            fair.exporter().exportBooks(out, ExportFormat.CSV);
+        }
+        return file;
+    }
+
+    @Test
+    public void exportedBooksImportBackUnchanged() throws IOException {
+        Fair source = new Fair();
+        Publisher publisher = source.publisher();
+        source.books.save(new PrintedBook("Cien años, \"edición\"", authors(source.author(1)),
+                "978-1-23-456789-0", "Novela", "Pasta dura", 50, publisher, 300, 2));
+        source.books.save(new DigitalBook("Digital", authors(source.author(1), source.author(2)),
+                "978-1-23-456789-1", "Ensayo", "EPUB", 20.5, publisher, "https://x.org/a?b=1,2"));
+        source.books.save(new DigitalBook("Sin enlace", authors(source.author(2)),
+                "978-1-23-456789-2", "Ensayo", "PDF", 10, publisher));
+        source.books.save(new Audiobook("Audio", authors(source.author(2)),
+                "978-1-23-456789-3", "Poesía", "MP3", 30, publisher, 90,
+                source.narrators.findById(20L).orElseThrow()));
+
+        Fair target = new Fair();
+        ImportReport report = target.importer().importFile(export(source),
+                CsvImporter.Entity.BOOKS, true);
+
+        assertEquals(report.getErrors().toString(), 4, report.getAccepted());
+        assertEquals(0, report.getRejected());
+        for (Book original : source.books.findAll()) {
+            Book copy = target.books.findById(original.getIsbn()).orElseThrow();
+            assertEquals(original.getClass(), copy.getClass());
+            assertEquals(original.getTitle(), copy.getTitle());
+            assertEquals(original.getGenre(), copy.getGenre());
+            assertEquals(original.getFormat(), copy.getFormat());
+            assertEquals(original.getValue(), copy.getValue(), 0);
+            assertEquals(original.getPublisher().getNit(), copy.getPublisher().getNit());
+            assertEquals(ids(original), ids(copy));
+            if (original instanceof PrintedBook printed) {
+                assertEquals(printed.getPages(), ((PrintedBook) copy).getPages());
+                assertEquals(printed.getCopies(), ((PrintedBook) copy).getCopies());
+            } else if (original instanceof DigitalBook digital) {
+                DigitalBook imported = (DigitalBook) copy;
+                assertEquals(digital.hasHyperlink(), imported.hasHyperlink());
+                if (digital.hasHyperlink()) {
+                    assertEquals(digital.getHyperlink(), imported.getHyperlink());
+                }
+            } else {
+                Audiobook audio = (Audiobook) original;
+                assertEquals(audio.getDuration(), ((Audiobook) copy).getDuration());
+                assertEquals(audio.getNarrador().getId(), ((Audiobook) copy).getNarrador().getId());
+            }
+        }
+    }
+
+    private static List<Long> ids(Book book) {
+        List<Long> ids = new ArrayList<>();
+        for (Author author : book.getAuthors()) {
+            ids.add(author.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void separatorsInsideStandListsAreEscaped() throws IOException {
+        Fair fair = new Fair();
+        Publisher plain = fair.publisher();
+        Publisher odd = new Publisher("900;1", "Sur; Oeste\\Este", "Calle 2",
+                new Manager(11, "Leo", "Díaz"));
+        fair.publishers.save(odd);
+        Stand stand = new Stand(1, 100);
+        for (Publisher publisher : List.of(plain, odd)) {
+            stand.addPublisher(publisher);
+            publisher.addStand(stand);
+        }
+        fair.stands.save(stand);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, fair.exporter().exportStands(out, ExportFormat.CSV));
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv, csv.contains(NIT + ";900\\;1"));
+        assertTrue(csv, csv.contains("Norte;Sur\\; Oeste\\\\Este"));
+        assertFalse(csv, csv.contains("Sur; Oeste"));
+    }
+}
@@ -0,0 +1,134 @@
+package megaferia.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CsvReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(byte[] content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, content);
+        return file;
+    }
+
+    private Path write(String content) throws IOException {
+        return write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> fields(CsvReader reader) {
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < reader.getFieldCount(); i++) {
+            fields.add(reader.field(i));
+        }
+        return fields;
+    }
+
+    private static List<List<String>> readAll(Path file) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(file)) {
+            while (reader.next()) {
+                records.add(fields(reader));
+            }
+        }
+        return records;
+    }
+
+    @Test
+    public void readsPlainAndQuotedFields() throws IOException {
+        Path file = write("a,b,,c\n\"x,y\",\"dijo \"\"hola\"\"\",\"\"\nú,ñ");
+        assertEquals(List.of(
+                List.of("a", "b", "", "c"),
+                List.of("x,y", "dijo \"hola\"", ""),
+                List.of("ú", "ñ")), readAll(file));
+    }
+
+    @Test
+    public void quotedFieldsMaySpanLines() throws IOException {
+        Path file = write("1,\"una\r\ndos\"\n2,fin\n");
+        try (CsvReader reader = new CsvReader(file)) {
+            assertTrue(reader.next());
+            // el \r dentro de comillas se conserva
+            assertEquals(List.of("1", "una\r\ndos"), fields(reader));
+            assertEquals(1, reader.getLineNumber());
+            assertTrue(reader.next());
+            assertEquals(List.of("2", "fin"), fields(reader));
+            assertEquals(3, reader.getLineNumber());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void skipsBlankLinesAndCarriageReturns() throws IOException {
+        Path file = write("\r\n\na,b\r\n\r\n\nc,d\r\n\n");
+        try (CsvReader reader = new CsvReader(file)) {
+            assertTrue(reader.next());
+            assertEquals(List.of("a", "b"), fields(reader));
+            assertEquals(3, reader.getLineNumber());
+            assertTrue(reader.next());
+            assertEquals(List.of("c", "d"), fields(reader));
+            assertEquals(6, reader.getLineNumber());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void skipsUtf8Bom() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "título,isbn\n".getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(body, 0, content, bom.length, body.length);
+
+        assertEquals(List.of(List.of("título", "isbn")), readAll(write(content)));
+        assertEquals(List.of(), readAll(write(bom)));
+    }
+
+    @Test
+    public void filesShorterThanTheBomAreReadAsData() throws IOException {
+        assertEquals(List.of(), readAll(write(new byte[0])));
+        assertEquals(List.of(List.of("a")), readAll(write("a")));
+        assertEquals(List.of(List.of("ab")), readAll(write("ab")));
+        // empiezan como el BOM pero no lo completan
+        assertEquals(1, readAll(write(new byte[] {(byte) 0xEF})).size());
+        assertEquals(1, readAll(write(new byte[] {(byte) 0xEF, (byte) 0xBB})).size());
+        assertEquals(1, readAll(write(new byte[] {(byte) 0xEF, (byte) 0xBB, 'x'})).size());
+    }
+
+    @Test
+    public void recordsCrossBlockBoundaries() throws IOException {
+        StringBuilder content = new StringBuilder();
+        int rows = 20_000;
+        for (int i = 0; i < rows; i++) {
+            content.append(i).append(",\"t\"\"").append(i).append("\"\n");
+        }
+        List<List<String>> records = readAll(write(content.toString()));
+        assertEquals(rows, records.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals(List.of(String.valueOf(i), "t\"" + i), records.get(i));
+        }
+    }
+
+    @Test
+    public void rejectsFieldsOutsideTheRecord() throws IOException {
+        try (CsvReader reader = new CsvReader(write("a,b\n"))) {
+            assertTrue(reader.next());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.field(2));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.field(-1));
+        }
+    }
+}
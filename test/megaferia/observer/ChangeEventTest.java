@@ -0,0 +1,42 @@
+package megaferia.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class ChangeEventTest {
+
+    @Test
+    public void mergerJoinsKeysInArrivalOrderWithoutRepeats() {
+        ChangeEvent.Merger merger = new ChangeEvent.Merger(ChangeEvent.created("book", "3"));
+        merger.add(ChangeEvent.of("book", ChangeEvent.Kind.CREATED, List.of("1", "3")));
+        merger.add(ChangeEvent.created("book", "2"));
+
+        ChangeEvent merged = merger.build();
+        assertEquals("book", merged.getDataType());
+        assertEquals(ChangeEvent.Kind.CREATED, merged.getKind());
+        assertEquals(List.of("3", "1", "2"), merged.getKeys());
+    }
+
+    @Test
+    public void unspecifiedEventAbsorbsTheRest() {
+        ChangeEvent.Merger merger = new ChangeEvent.Merger(ChangeEvent.linked("stand", List.of(1L)));
+        merger.add(ChangeEvent.unspecified("stand"));
+        merger.add(ChangeEvent.linked("stand", List.of(2L)));
+
+        assertTrue(merger.build().isUnspecified());
+        assertTrue(new ChangeEvent.Merger(ChangeEvent.unspecified("stand")).build().isUnspecified());
+    }
+
+    @Test
+    public void builtEventsDoNotChangeWithLaterAdds() {
+        ChangeEvent.Merger merger = new ChangeEvent.Merger(ChangeEvent.created("author", 1L));
+        ChangeEvent first = merger.build();
+        merger.add(ChangeEvent.created("author", 2L));
+
+        assertEquals(List.of(1L), first.getKeys());
+        assertEquals(List.of(1L, 2L), merger.build().getKeys());
+    }
+}
@@ -0,0 +1,160 @@
+package megaferia.observer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventBusTest {
+
+    private ExecutorService executor;
+    private EventBus bus;
+    private final List<ChangeEvent> received = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        bus = new EventBus(executor);
+        bus.registerObserver(new Observer() {
+            @Override
+            public void update(String dataType) {
+                throw new AssertionError("el bus entrega avisos con claves");
+            }
+
+            @Override
+            public void onChange(ChangeEvent event) {
+                received.add(event);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        bus.close();
+    }
+
+    /** Ocupa el hilo de entrega hasta que se abra el cerrojo. */
+    private CountDownLatch pause() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        return gate;
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        CountDownLatch idle = new CountDownLatch(1);
+        executor.execute(idle::countDown);
+        assertTrue(idle.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void eventsQueuedWhileBusyAreCoalescedBySlot() throws InterruptedException {
+        CountDownLatch gate = pause();
+        for (long id = 0; id < 1000; id++) {
+            bus.onChange(ChangeEvent.created("author", id));
+        }
+        bus.onChange(ChangeEvent.linked("stand", List.of(7L)));
+        bus.onChange(ChangeEvent.created("author", 5L));
+        assertEquals(2, bus.getPendingCount());
+
+        gate.countDown();
+        awaitIdle();
+
+        assertEquals(1002, bus.getPublishedCount());
+        assertEquals(1000, bus.getCoalescedCount());
+        assertEquals(2, bus.getDeliveredCount());
+        assertEquals(0, bus.getPendingCount());
+
+        assertEquals(2, received.size());
+        ChangeEvent authors = received.get(0);
+        assertEquals("author", authors.getDataType());
+        assertEquals(1000, authors.getKeys().size());
+        assertEquals(0L, authors.getKeys().get(0));
+        assertEquals(List.of(7L), received.get(1).getKeys());
+    }
+
+    @Test
+    public void unspecifiedUpdateTurnsTheSlotIntoAFullReload() throws InterruptedException {
+        CountDownLatch gate = pause();
+        bus.onChange(ChangeEvent.of("book", ChangeEvent.Kind.UPDATED, List.of("1")));
+        bus.update("book");
+        bus.onChange(ChangeEvent.of("book", ChangeEvent.Kind.UPDATED, List.of("2")));
+        gate.countDown();
+        awaitIdle();
+
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).isUnspecified());
+    }
+
+    @Test
+    public void failingObserverDoesNotStopDelivery() throws InterruptedException {
+        EventBus failingFirst = new EventBus(executor);
+        failingFirst.registerObserver(new Observer() {
+            @Override
+            public void update(String dataType) {
+            }
+
+            @Override
+            public void onChange(ChangeEvent event) {
+                throw new IllegalStateException("falla a propósito");
+            }
+        });
+        failingFirst.registerObserver(new Observer() {
+            @Override
+            public void update(String dataType) {
+            }
+
+            @Override
+            public void onChange(ChangeEvent event) {
+                received.add(event);
+            }
+        });
+
+        failingFirst.onChange(ChangeEvent.created("stand", 1L));
+        awaitIdle();
+
+        assertEquals(1, received.size());
+        assertEquals(1, failingFirst.getDeliveredCount());
+        assertEquals(1, failingFirst.getFailedCount());
+        assertEquals("falla a propósito", failingFirst.getLastFailure().getMessage());
+    }
+
+    @Test
+    public void eventsAfterCloseAreDropped() throws InterruptedException {
+        bus.close();
+        bus.onChange(ChangeEvent.created("stand", 1L));
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(received.isEmpty());
+        assertEquals(0, bus.getPendingCount());
+    }
+
+    @Test
+    public void rejectedDeliveryDoesNotWedgeTheBus() {
+        executor.shutdown();
+        bus.onChange(ChangeEvent.created("stand", 1L));
+        assertEquals(0, bus.getPendingCount());
+
+        // la entrega no quedó marcada como programada: el segundo aviso no se
+        // queda esperando en pending una entrega que nunca llegará
+        bus.onChange(ChangeEvent.created("stand", 2L));
+        assertEquals(0, bus.getPendingCount());
+    }
+}
@@ -0,0 +1,156 @@
+package megaferia.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BookRepositoryTest {
+
+    private BookRepository books;
+    private Author ana;
+    private Author luis;
+    private Publisher norte;
+    private Publisher sur;
+    private Narrator narrator;
+
+    @Before
+    public void setUp() {
+        books = new BookRepository();
+        ana = new Author(1, "Ana", "Pérez");
+        luis = new Author(2, "Luis", "Gómez");
+        norte = new Publisher("111-1", "Norte", "Calle 1", new Manager(10, "Eva", "Ruiz"));
+        sur = new Publisher("222-2", "Sur", "Calle 2", new Manager(11, "Raúl", "Díaz"));
+        narrator = new Narrator(20, "Sara", "Mora");
+    }
+
+    private static ArrayList<Author> authors(Author... authors) {
+        return new ArrayList<>(List.of(authors));
+    }
+
+    private Book printed(String isbn, String title, Publisher publisher, Author... authors) {
+        return new PrintedBook(title, authors(authors), isbn, "Novela", "Pasta dura", 10, publisher, 100, 1);
+    }
+
+    private static List<String> isbns(List<Book> books) {
+        List<String> isbns = new ArrayList<>();
+        for (Book book : books) {
+            isbns.add(book.getIsbn());
+        }
+        return isbns;
+    }
+
+    @Test
+    public void secondaryIndexesReturnBooksInIsbnOrder() {
+        books.save(printed("3", "C", norte, ana));
+        books.save(new DigitalBook("B", authors(luis), "2", "Ensayo", "EPUB", 5, sur));
+        books.save(new Audiobook("A", authors(ana), "1", "Novela", "MP3", 7, norte, 60, narrator));
+
+        assertEquals(List.of("1", "3"), isbns(books.findByGenre("Novela")));
+        assertEquals(List.of("2"), isbns(books.findByFormat("EPUB")));
+        assertEquals(List.of("3"), isbns(books.findByType(PrintedBook.class)));
+        assertEquals(List.of("1"), isbns(books.findByType(Audiobook.class)));
+        assertEquals(List.of("1", "3"), isbns(books.findByPublisher("111-1")));
+        assertEquals(List.of("1", "3"), isbns(books.findByAuthor(1)));
+        assertTrue(books.findByGenre("Poesía").isEmpty());
+        assertTrue(books.findByAuthor(99).isEmpty());
+    }
+
+    @Test
+    public void updateMovesBooksBetweenBuckets() {
+        books.save(printed("1", "Uno", norte, ana));
+        books.update(new DigitalBook("Uno", authors(luis), "1", "Ensayo", "PDF", 5, sur));
+
+        assertTrue(books.findByGenre("Novela").isEmpty());
+        assertTrue(books.findByType(PrintedBook.class).isEmpty());
+        assertTrue(books.findByPublisher("111-1").isEmpty());
+        assertTrue(books.findByAuthor(1).isEmpty());
+        assertEquals(List.of("1"), isbns(books.findByGenre("Ensayo")));
+        assertEquals(List.of("1"), isbns(books.findByPublisher("222-2")));
+        assertEquals(List.of("1"), isbns(books.findByAuthor(2)));
+    }
+
+    @Test
+    public void topAuthorsCountDistinctPublishers() {
+        assertEquals(new TopAuthors(0, List.of()), books.findTopAuthorsByPublishers());
+
+        books.save(printed("1", "Uno", norte, ana, luis));
+        books.save(printed("2", "Dos", norte, ana));
+        assertEquals(new TopAuthors(1, List.of(1L, 2L)), books.findTopAuthorsByPublishers());
+
+        books.save(printed("3", "Tres", sur, ana));
+        assertEquals(new TopAuthors(2, List.of(1L)), books.findTopAuthorsByPublishers());
+
+        // al pasar el libro 3 a Norte, Ana vuelve a una sola editorial
+        books.update(printed("3", "Tres", norte, ana));
+        assertEquals(new TopAuthors(1, List.of(1L, 2L)), books.findTopAuthorsByPublishers());
+    }
+
+    @Test
+    public void createAllSkipsExistingAndRepeatedIsbns() {
+        books.save(printed("1", "Uno", norte, ana));
+        List<Book> created = books.createAll(List.of(
+                BookDraft.printed("Otro uno", List.of(luis), "1", "Novela", "Pasta dura", 10, norte, 100, 1),
+                BookDraft.digital("Dos", List.of(luis), "2", "Ensayo", "EPUB", 5, sur, null),
+                BookDraft.audiobook("Dos bis", List.of(luis), "2", "Novela", "MP3", 7, sur, 60, narrator),
+                BookDraft.audiobook("Tres", List.of(luis), "3", "Novela", "MP3", 7, sur, 60, narrator)));
+
+        assertEquals(List.of("2", "3"), isbns(created));
+        assertEquals("Uno", books.findById("1").get().getTitle());
+        // solo los libros creados quedaron enlazados
+        assertEquals(2, luis.getBookQuantity());
+        assertEquals(1, narrator.getBookQuantity());
+        assertEquals(List.of("3"), isbns(books.findByType(Audiobook.class)));
+    }
+
+    @Test
+    public void prefixSearchListsIsbnMatchesBeforeTitles() {
+        books.save(printed("978-2", "Árboles", norte, ana));
+        books.save(printed("978-1", "Arena", norte, ana));
+        books.save(printed("555", "978 razones", norte, ana));
+        books.save(printed("100", "Otro", norte, ana));
+
+        assertEquals(List.of("978-1", "978-2", "555"), isbns(books.findByPrefix("978", 0, 10)));
+        // sin distinguir mayúsculas ni tildes, en orden de título
+        assertEquals(List.of("978-2", "978-1"), isbns(books.findByPrefix("ar", 0, 10)));
+        assertEquals(List.of("978-2"), isbns(books.findByPrefix("ÁRB", 0, 10)));
+    }
+
+    @Test
+    public void prefixSearchPagesWithOffsetAndLimit() {
+        books.save(printed("978-1", "x", norte, ana));
+        books.save(printed("978-2", "y", norte, ana));
+        books.save(printed("1", "978 a", norte, ana));
+        books.save(printed("2", "978 b", norte, ana));
+
+        assertEquals(List.of("978-1", "978-2"), isbns(books.findByPrefix("978", 0, 2)));
+        assertEquals(List.of("978-2", "1"), isbns(books.findByPrefix("978", 1, 2)));
+        assertEquals(List.of("2"), isbns(books.findByPrefix("978", 3, 2)));
+        assertTrue(books.findByPrefix("978", 4, 2).isEmpty());
+        assertTrue(books.findByPrefix("978", 0, 0).isEmpty());
+        assertTrue(books.findByPrefix("  ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void prefixSearchFollowsUpdatesAndBatches() {
+        books.save(printed("1", "Viejo", norte, ana));
+        books.update(printed("1", "Nuevo", norte, ana));
+        assertTrue(books.findByPrefix("viejo", 0, 10).isEmpty());
+        assertEquals(List.of("1"), isbns(books.findByPrefix("nuevo", 0, 10)));
+
+        books.saveAll(List.of(printed("3", "Nube", norte, ana), printed("2", "Nube", sur, luis)));
+        // títulos iguales se desempatan por ISBN
+        assertEquals(List.of("2", "3", "1"), isbns(books.findByPrefix("nu", 0, 10)));
+    }
+}
@@ -0,0 +1,163 @@
+package megaferia.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class ConcurrentRepositoryTest {
+
+    private static final int WRITERS = 4;
+    private static final int PER_WRITER = 5000;
+
+    private static final class Item {
+        final long id;
+        final int version;
+
+        Item(long id, int version) {
+            this.id = id;
+            this.version = version;
+        }
+    }
+
+    private static ConcurrentRepository<Item, Long> newRepository() {
+        return new ConcurrentRepository<>(item -> item.id, Comparator.<Long>naturalOrder());
+    }
+
+    @Test
+    public void updateDoesNotCreateMissingKeys() {
+        ConcurrentRepository<Item, Long> repository = newRepository();
+        assertNull(repository.update(new Item(1, 0)));
+        assertFalse(repository.findById(1L).isPresent());
+        assertTrue(repository.findAll().isEmpty());
+    }
+
+    @Test
+    public void saveIfAbsentKeepsTheFirstWriterPerKey() throws Exception {
+        ConcurrentRepository<Item, Long> repository = newRepository();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int version = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    int won = 0;
+                    for (long id = 0; id < PER_WRITER; id++) {
+                        if (repository.saveIfAbsent(new Item(id, version))) {
+                            won++;
+                        }
+                    }
+                    return won;
+                }));
+            }
+            start.countDown();
+            int won = 0;
+            for (Future<Integer> writer : writers) {
+                won += writer.get();
+            }
+            assertEquals(PER_WRITER, won);
+            assertEquals(PER_WRITER, repository.findAll().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void findAllIsCachedUntilTheNextWrite() {
+        ConcurrentRepository<Item, Long> repository = newRepository();
+        repository.save(new Item(2, 0));
+        repository.save(new Item(1, 0));
+        List<Item> first = repository.findAll();
+        assertTrue(first == repository.findAll());
+        assertEquals(1L, first.get(0).id);
+
+        repository.save(new Item(3, 0));
+        assertEquals(2, first.size());
+        assertEquals(3, repository.findAll().size());
+    }
+
+    @Test
+    public void findPageFollowsKeyOrder() {
+        ConcurrentRepository<Item, Long> repository = newRepository();
+        for (long id = 10; id > 0; id--) {
+            repository.save(new Item(id, 0));
+        }
+        List<Item> page = repository.findPage(4L, 3);
+        assertEquals(3, page.size());
+        assertEquals(5L, page.get(0).id);
+        assertEquals(7L, page.get(2).id);
+    }
+
+    @Test
+    public void concurrentWritersAndReadersStayConsistent() throws Exception {
+        ConcurrentRepository<Item, Long> repository = newRepository();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                long base = (long) w * PER_WRITER;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (long id = base; id < base + PER_WRITER; id++) {
+                        repository.save(new Item(id, 0));
+                        repository.update(new Item(id, 1));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    while (writing.get()) {
+                        // lo que findAll devuelve debe existir en findById y
+                        // venir en orden de clave
+                        List<Item> all = repository.findAll();
+                        long previous = -1;
+                        for (Item item : all) {
+                            assertTrue(item.id > previous);
+                            previous = item.id;
+                            assertTrue(repository.findById(item.id).isPresent());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Item> all = repository.findAll();
+        assertEquals(WRITERS * PER_WRITER, all.size());
+        for (Item item : all) {
+            assertEquals(1, item.version);
+        }
+        List<Long> ids = List.of(0L, (long) PER_WRITER, -1L);
+        Map<Long, Item> found = repository.findAllById(ids);
+        assertEquals(List.of(0L, (long) PER_WRITER), new ArrayList<>(found.keySet()));
+    }
+}
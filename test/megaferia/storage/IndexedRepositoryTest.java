@@ -0,0 +1,66 @@
+package megaferia.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import core.Manager;
+import core.Publisher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class IndexedRepositoryTest {
+
+    private final Manager manager = new Manager(1, "Ana", "Pérez");
+
+    private Publisher publisher(String nit) {
+        return new Publisher(nit, "Editorial " + nit, "Calle 1", manager);
+    }
+
+    private static List<String> nits(List<Publisher> publishers) {
+        return publishers.stream().map(Publisher::getNit).collect(Collectors.toList());
+    }
+
+    @Test
+    public void findAllIsOrderedByKey() {
+        PublisherRepository repository = new PublisherRepository();
+        repository.save(publisher("300"));
+        repository.save(publisher("100"));
+        repository.saveAll(List.of(publisher("250"), publisher("050")));
+        assertEquals(List.of("050", "100", "250", "300"), nits(repository.findAll()));
+        assertEquals(nits(repository.findAll()),
+                repository.stream().map(Publisher::getNit).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void findByIdUsesTheKey() {
+        PublisherRepository repository = new PublisherRepository();
+        Publisher saved = repository.save(publisher("100"));
+        assertSame(saved, repository.findById("100").get());
+        assertFalse(repository.findById("200").isPresent());
+    }
+
+    @Test
+    public void updateDoesNotCreateMissingKeys() {
+        PublisherRepository repository = new PublisherRepository();
+        repository.save(publisher("100"));
+        assertNull(repository.update(publisher("200")));
+        assertEquals(List.of("100"), nits(repository.findAll()));
+        assertEquals(1, repository.updateAll(List.of(publisher("100"), publisher("300"))).size());
+    }
+
+    @Test
+    public void findAllByIdAndPages() {
+        PublisherRepository repository = new PublisherRepository();
+        for (String nit : List.of("1", "2", "3", "4", "5")) {
+            repository.save(publisher(nit));
+        }
+        assertEquals(List.of("5", "1"),
+                new ArrayList<>(repository.findAllById(List.of("5", "9", "1")).keySet()));
+        assertEquals(List.of("3", "4"), nits(repository.findPage("2", 2)));
+        assertEquals(List.of("1"), nits(repository.findPage(null, 1)));
+    }
+}
@@ -0,0 +1,43 @@
+package megaferia.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class LongHashMapTest {
+
+    @Test
+    public void behavesLikeAHashMapThroughRehashes() {
+        LongHashMap<String> map = new LongHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextLong() % 20_000;
+            String value = "v" + i;
+            assertEquals(expected.put(key, value), map.put(key, value));
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+            assertTrue(map.containsKey(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void missingKeys() {
+        LongHashMap<String> map = new LongHashMap<>(4);
+        assertTrue(map.isEmpty());
+        map.put(0, "cero");
+        map.put(Long.MIN_VALUE, "min");
+        assertEquals("cero", map.get(0));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertNull(map.get(1));
+        assertFalse(map.containsKey(Long.MAX_VALUE));
+    }
+}
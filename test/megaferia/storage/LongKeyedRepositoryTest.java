@@ -0,0 +1,111 @@
+package megaferia.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import core.Stand;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class LongKeyedRepositoryTest {
+
+    private static List<Long> ids(List<Stand> stands) {
+        return stands.stream().map(Stand::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void findByIdWithPrimitiveAndBoxedKeys() {
+        StandRepository repository = new StandRepository();
+        Stand stand = repository.save(new Stand(42, 10));
+        assertSame(stand, repository.findById(42).get());
+        assertSame(stand, repository.findById(Long.valueOf(42)).get());
+        assertFalse(repository.findById(7).isPresent());
+        assertFalse(repository.findById((Long) null).isPresent());
+    }
+
+    @Test
+    public void findAllKeepsIdOrderForRandomInserts() {
+        StandRepository repository = new StandRepository();
+        Random random = new Random(1);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long id = random.nextInt(1_000_000);
+            if (repository.findById(id).isEmpty()) {
+                expected.add(id);
+            }
+            repository.save(new Stand(id, 1));
+        }
+        expected.sort(null);
+        assertEquals(expected, ids(repository.findAll()));
+        assertEquals(expected, repository.stream().map(Stand::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void saveAllMergesWithExistingKeys() {
+        StandRepository repository = new StandRepository();
+        repository.save(new Stand(5, 1));
+        repository.save(new Stand(1, 1));
+        Stand replacement = new Stand(5, 2);
+        repository.saveAll(List.of(new Stand(3, 1), replacement, new Stand(9, 1)));
+        assertEquals(List.of(1L, 3L, 5L, 9L), ids(repository.findAll()));
+        assertSame(replacement, repository.findById(5).get());
+    }
+
+    @Test
+    public void updateOnlyTouchesExistingKeys() {
+        StandRepository repository = new StandRepository();
+        repository.save(new Stand(1, 1));
+        assertNull(repository.update(new Stand(2, 1)));
+        Stand updated = new Stand(1, 5);
+        List<Stand> result = repository.updateAll(List.of(updated, new Stand(3, 1)));
+        assertEquals(List.of(updated), result);
+        assertEquals(List.of(1L), ids(repository.findAll()));
+        assertSame(updated, repository.findById(1).get());
+    }
+
+    @Test
+    public void findAllByIdFollowsRequestedOrder() {
+        StandRepository repository = new StandRepository();
+        for (long id = 1; id <= 5; id++) {
+            repository.save(new Stand(id, 1));
+        }
+        Map<Long, Stand> found = repository.findAllById(List.of(4L, 99L, 2L));
+        assertEquals(List.of(4L, 2L), new ArrayList<>(found.keySet()));
+    }
+
+    @Test
+    public void findAllIsAnImmutableSnapshotCachedUntilTheNextWrite() {
+        StandRepository repository = new StandRepository();
+        repository.save(new Stand(1, 1));
+        List<Stand> first = repository.findAll();
+        assertSame(first, repository.findAll());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new Stand(2, 1)));
+
+        repository.save(new Stand(2, 1));
+        assertEquals(1, first.size());
+        assertEquals(2, repository.findAll().size());
+        assertTrue(first != repository.findAll());
+    }
+
+    @Test
+    public void findPageWalksFromTheCursor() {
+        StandRepository repository = new StandRepository();
+        for (long id = 10; id <= 100; id += 10) {
+            repository.save(new Stand(id, 1));
+        }
+        assertEquals(List.of(10L, 20L, 30L), ids(repository.findPage(null, 3)));
+        assertEquals(List.of(40L, 50L), ids(repository.findPage(35L, 2)));
+        assertEquals(List.of(40L, 50L), ids(repository.findPage(30L, 2)));
+        assertEquals(List.of(100L), ids(repository.findPage(90L, 5)));
+        assertTrue(repository.findPage(100L, 5).isEmpty());
+        assertTrue(repository.findPage(null, 0).isEmpty());
+    }
+}
@@ -0,0 +1,273 @@
+package megaferia.storage.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import core.Audiobook;
+import core.Author;
+import core.Book;
+import core.DigitalBook;
+import core.Manager;
+import core.Narrator;
+import core.PrintedBook;
+import core.Publisher;
+import core.Stand;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import megaferia.storage.BookDraft;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DurableStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory() {
+        return folder.getRoot().toPath();
+    }
+
+    /** Una editorial con su gerente, un autor, un narrador, dos libros y un stand comprado. */
+    private static void populate(DurableStorage storage) {
+        Manager manager = storage.managers().save(new Manager(1, "Ana", "Pérez"));
+        Author author = storage.authors().save(new Author(2, "Luis", "Gómez"));
+        Narrator narrator = storage.narrators().save(new Narrator(3, "Eva", "Ruiz"));
+        Publisher publisher = storage.publishers().save(
+                new Publisher("100.200.300-1", "Editorial", "Calle 1", manager));
+        ArrayList<Author> authors = new ArrayList<>(List.of(author));
+        storage.books().save(new PrintedBook("Cien años", authors, "978-0-00-000001-1",
+                "Novela", "Pasta dura", 50, publisher, 400, 3));
+        storage.books().save(new Audiobook("Voces", authors, "978-0-00-000002-1",
+                "Poesía", "MP3", 20, publisher, 90, narrator));
+        Stand stand = storage.stands().save(new Stand(7, 1000));
+        storage.stands().link(List.of(stand), List.of(publisher));
+    }
+
+    private static void assertPopulated(DurableStorage storage) {
+        Stand stand = storage.stands().findById(7).get();
+        assertEquals(1, stand.getPublisherQuantity());
+        Publisher publisher = storage.publishers().findById("100.200.300-1").get();
+        assertEquals(1, publisher.getStandQuantity());
+        assertEquals("Ana Pérez", publisher.getManager().getFullname());
+
+        Author author = storage.authors().findById(2).get();
+        assertEquals(2, author.getBookQuantity());
+        List<Book> books = storage.books().findByAuthor(2);
+        assertEquals(2, books.size());
+        Audiobook audiobook = (Audiobook) storage.books().findById("978-0-00-000002-1").get();
+        assertEquals(3, audiobook.getNarrador().getId());
+        assertEquals(90, audiobook.getDuration());
+    }
+
+    @Test
+    public void reopeningReplaysTheLog() throws IOException {
+        Path original = folder.newFolder("original").toPath();
+        Path onlyLog = folder.newFolder("solo-log").toPath();
+        try (DurableStorage storage = DurableStorage.open(original, Long.MAX_VALUE)) {
+            populate(storage);
+            assertPopulated(storage);
+            // al cerrar se toma una instantánea: se copia antes el log solo
+            Files.copy(original.resolve("megaferia-0.wal"), onlyLog.resolve("megaferia-0.wal"));
+        }
+        try (DurableStorage storage = DurableStorage.open(onlyLog)) {
+            assertPopulated(storage);
+        }
+    }
+
+    @Test
+    public void updatesAreReplayedFromTheLog() throws IOException {
+        Path original = folder.newFolder("original").toPath();
+        Path onlyLog = folder.newFolder("solo-log").toPath();
+        try (DurableStorage storage = DurableStorage.open(original, Long.MAX_VALUE)) {
+            populate(storage);
+            Author author = storage.authors().update(new Author(2, "Luis", "Gómez Ruiz"));
+            Publisher publisher = storage.publishers().findById("100.200.300-1").get();
+            storage.books().update(new DigitalBook("Cien años", new ArrayList<>(List.of(author)),
+                    "978-0-00-000001-1", "Ensayo", "EPUB", 30, publisher, "https://libro"));
+            Files.copy(original.resolve("megaferia-0.wal"), onlyLog.resolve("megaferia-0.wal"));
+        }
+        try (DurableStorage storage = DurableStorage.open(onlyLog)) {
+            assertEquals("Luis Gómez Ruiz", storage.authors().findById(2).get().getFullname());
+            assertTrue(storage.books().findByType(PrintedBook.class).isEmpty());
+            assertTrue(storage.books().findByGenre("Novela").isEmpty());
+            List<Book> essays = storage.books().findByGenre("Ensayo");
+            assertEquals(1, essays.size());
+            assertEquals("https://libro", ((DigitalBook) essays.get(0)).getHyperlink());
+            assertEquals(1, storage.books().findByPrefix("cien", 0, 10).size());
+        }
+    }
+
+    @Test
+    public void reopeningLoadsTheSnapshotAndLaterSegments() throws IOException {
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            populate(storage);
+            storage.snapshot();
+            storage.narrators().save(new Narrator(4, "Raúl", "Díaz"));
+            assertNull(storage.getSnapshotFailure());
+        }
+        try (DurableStorage storage = DurableStorage.open(directory())) {
+            assertPopulated(storage);
+            assertTrue(storage.narrators().findById(4).isPresent());
+        }
+        // solo quedan la última instantánea y el segmento que la sigue
+        try (Stream<Path> files = Files.list(directory())) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void textsLongerThan64KbSurviveLogAndSnapshot() throws IOException {
+        String longName = "x".repeat(70_000) + "ñ";
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            storage.authors().save(new Author(1, longName, "Pérez"));
+            storage.snapshot();
+            storage.authors().save(new Author(2, "Ana", longName));
+            assertNull(storage.getSnapshotFailure());
+        }
+        try (DurableStorage storage = DurableStorage.open(directory())) {
+            assertEquals(longName, storage.authors().findById(1).get().getFirstname());
+            assertEquals(longName, storage.authors().findById(2).get().getLastname());
+        }
+    }
+
+    @Test
+    public void concurrentWritersAndSnapshotsLoseNothing() throws Exception {
+        int threads = 4;
+        int perThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * perThread;
+                writers.add(pool.submit(() -> {
+                    for (long id = base; id < base + perThread; id++) {
+                        storage.authors().save(new Author(id, "Autor", String.valueOf(id)));
+                        if (id % 300 == 0) {
+                            storage.snapshot();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            assertEquals(threads * perThread, storage.authors().findAll().size());
+        } finally {
+            pool.shutdown();
+        }
+
+        try (DurableStorage storage = DurableStorage.open(directory())) {
+            List<Author> authors = storage.authors().findAll();
+            assertEquals(threads * perThread, authors.size());
+            for (int i = 0; i < authors.size(); i++) {
+                assertEquals(i, authors.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void failedBookCreationLeavesNoLinks() throws IOException {
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            Manager manager = storage.managers().save(new Manager(1, "Ana", "Pérez"));
+            Author author = storage.authors().save(new Author(2, "Luis", "Gómez"));
+            Publisher publisher = storage.publishers().save(
+                    new Publisher("1", "Editorial", "Calle 1", manager));
+            storage.getLog().close();
+
+            BookDraft draft = BookDraft.printed("Título", List.of(author), "978-0-00-000001-1",
+                    "Novela", "Pasta dura", 10, publisher, 100, 1);
+            assertThrows(UncheckedIOException.class, () -> storage.books().createAll(List.of(draft)));
+            assertEquals(0, author.getBookQuantity());
+            assertTrue(storage.books().findAll().isEmpty());
+        }
+    }
+
+    @Test
+    public void concurrentCreatesOfTheSameIsbnKeepOne() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            Manager manager = storage.managers().save(new Manager(1, "Ana", "Pérez"));
+            Author author = storage.authors().save(new Author(2, "Luis", "Gómez"));
+            Publisher publisher = storage.publishers().save(
+                    new Publisher("1", "Editorial", "Calle 1", manager));
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Book>>> attempts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String title = "Versión " + t;
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    return storage.books().createAll(List.of(BookDraft.printed(title, List.of(author),
+                            "978-0-00-000001-1", "Novela", "Pasta dura", 10, publisher, 100, 1)));
+                }));
+            }
+            start.countDown();
+            int created = 0;
+            for (Future<List<Book>> attempt : attempts) {
+                created += attempt.get().size();
+            }
+            assertEquals(1, created);
+            assertEquals(1, author.getBookQuantity());
+            // gerente, autor, editorial y un solo alta de libro
+            assertEquals(4, storage.getLog().getRecordCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentSaveIfAbsentLogsOneRecordPerKey() throws Exception {
+        int threads = 4;
+        int ids = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            List<Future<Integer>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String lastname = "Hilo " + t;
+                writers.add(pool.submit(() -> {
+                    int won = 0;
+                    for (long id = 0; id < ids; id++) {
+                        if (storage.authors().saveIfAbsent(new Author(id, "Autor", lastname))) {
+                            won++;
+                        }
+                    }
+                    return won;
+                }));
+            }
+            int won = 0;
+            for (Future<Integer> writer : writers) {
+                won += writer.get();
+            }
+            assertEquals(ids, won);
+            assertEquals(ids, storage.getLog().getRecordCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void linkingMissingStandsDoesNothing() throws IOException {
+        try (DurableStorage storage = DurableStorage.open(directory(), Long.MAX_VALUE)) {
+            Manager manager = storage.managers().save(new Manager(1, "Ana", "Pérez"));
+            Publisher publisher = storage.publishers().save(
+                    new Publisher("1", "Editorial", "Calle 1", manager));
+            assertTrue(storage.stands().link(List.of(new Stand(5, 10)), List.of(publisher)).isEmpty());
+            assertEquals(0, publisher.getStandQuantity());
+            assertFalse(storage.stands().findById(5).isPresent());
+        }
+    }
+}
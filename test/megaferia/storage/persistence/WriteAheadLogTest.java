@@ -0,0 +1,160 @@
+package megaferia.storage.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriteAheadLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final class Collected implements WriteAheadLog.RecordHandler {
+        final List<RecordType> types = new ArrayList<>();
+        final List<byte[]> payloads = new ArrayList<>();
+
+        @Override
+        public void handle(RecordType type, byte[] payload) {
+            types.add(type);
+            payloads.add(payload);
+        }
+    }
+
+    private Path file() throws IOException {
+        return folder.getRoot().toPath().resolve("test.wal");
+    }
+
+    @Test
+    public void replaysWhatWasAppended() throws IOException {
+        Path file = file();
+        try (WriteAheadLog log = WriteAheadLog.open(file, new Collected())) {
+            log.append(RecordType.STAND_SAVED, new byte[] {1, 2, 3});
+            log.appendAll(RecordType.AUTHOR_SAVED, List.of(new byte[] {4}, new byte[0]));
+            assertEquals(3, log.getRecordCount());
+        }
+
+        Collected replayed = new Collected();
+        long valid = WriteAheadLog.replay(file, replayed);
+        assertEquals(Files.size(file), valid);
+        assertEquals(List.of(RecordType.STAND_SAVED, RecordType.AUTHOR_SAVED, RecordType.AUTHOR_SAVED),
+                replayed.types);
+        assertArrayEquals(new byte[] {1, 2, 3}, replayed.payloads.get(0));
+        assertArrayEquals(new byte[0], replayed.payloads.get(2));
+    }
+
+    @Test
+    public void tornTailIsTruncatedOnOpen() throws IOException {
+        Path file = file();
+        try (WriteAheadLog log = WriteAheadLog.open(file, new Collected())) {
+            log.append(RecordType.STAND_SAVED, new byte[] {1});
+            log.append(RecordType.STAND_SAVED, new byte[] {2, 2, 2, 2});
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        Collected replayed = new Collected();
+        try (WriteAheadLog log = WriteAheadLog.open(file, replayed)) {
+            assertEquals(1, replayed.types.size());
+            log.append(RecordType.STAND_SAVED, new byte[] {3});
+        }
+
+        Collected reopened = new Collected();
+        WriteAheadLog.replay(file, reopened);
+        assertEquals(2, reopened.payloads.size());
+        assertArrayEquals(new byte[] {3}, reopened.payloads.get(1));
+    }
+
+    @Test
+    public void corruptChecksumEndsTheReplay() throws IOException {
+        Path file = file();
+        try (WriteAheadLog log = WriteAheadLog.open(file, new Collected())) {
+            log.append(RecordType.STAND_SAVED, new byte[] {1});
+            log.append(RecordType.STAND_SAVED, new byte[] {2});
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(file, bytes);
+
+        Collected replayed = new Collected();
+        WriteAheadLog.replay(file, replayed);
+        assertEquals(1, replayed.types.size());
+    }
+
+    @Test
+    public void impossibleLengthIsTreatedAsTheTornTail() throws IOException {
+        Path file = file();
+        try (WriteAheadLog log = WriteAheadLog.open(file, new Collected())) {
+            log.append(RecordType.STAND_SAVED, new byte[] {1});
+        }
+        long valid = Files.size(file);
+        try (OutputStream raw = Files.newOutputStream(file, StandardOpenOption.APPEND);
+             DataOutputStream out = new DataOutputStream(raw)) {
+            // más que el máximo y más que lo que queda en el archivo
+            out.writeInt(Integer.MAX_VALUE - 1);
+            out.writeInt(0);
+            out.writeByte(1);
+        }
+
+        Collected replayed = new Collected();
+        assertEquals(valid, WriteAheadLog.replay(file, replayed));
+        assertEquals(1, replayed.types.size());
+    }
+
+    @Test
+    public void oversizedRecordsAreRejected() throws IOException {
+        try (WriteAheadLog log = WriteAheadLog.open(file(), new Collected())) {
+            byte[] huge = new byte[WriteAheadLog.MAX_RECORD_BYTES];
+            assertThrows(IOException.class, () -> log.append(RecordType.BOOK_SAVED, huge));
+            assertEquals(0, log.getRecordCount());
+        }
+    }
+
+    @Test
+    public void concurrentAppendsShareFsyncs() throws Exception {
+        Path file = file();
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (WriteAheadLog log = WriteAheadLog.open(file, new Collected())) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                byte value = (byte) t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(RecordType.AUTHOR_SAVED, new byte[] {value});
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            assertEquals(threads * perThread, log.getRecordCount());
+            assertTrue(log.getSyncCount() <= threads * perThread);
+        } finally {
+            pool.shutdown();
+        }
+
+        Collected replayed = new Collected();
+        WriteAheadLog.replay(file, replayed);
+        assertEquals(threads * perThread, replayed.types.size());
+    }
+}
@@ -0,0 +1,60 @@
+package megaferia.view;
+
+import static org.junit.Assert.assertEquals;
+
+import core.Author;
+import core.Manager;
+import core.Narrator;
+import core.Stand;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import org.junit.Test;
+
+public class ViewTableModelTest {
+
+    private static final Comparator<StandView> BY_ID = Comparator.comparingLong(StandView::getId);
+
+    private static StandView stand(long id, double price) {
+        return StandView.of(new Stand(id, price));
+    }
+
+    @Test
+    public void mergeRowsReplacesAndInsertsOnlyTheChangedRows() {
+        StandTableModel model = new StandTableModel();
+        model.setRows(List.of(stand(1, 10), stand(3, 30), stand(5, 50)));
+        List<String> events = new ArrayList<>();
+        model.addTableModelListener(e -> events.add(
+                (e.getType() == TableModelEvent.INSERT ? "+" : "~") + e.getFirstRow()));
+
+        model.mergeRows(List.of(stand(3, 35), stand(4, 40), stand(0, 5)), BY_ID);
+
+        assertEquals(List.of("~1", "+2", "+0"), events);
+        assertEquals(5, model.getRowCount());
+        long[] ids = new long[model.getRowCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = model.getRow(i).getId();
+        }
+        assertEquals("[0, 1, 3, 4, 5]", Arrays.toString(ids));
+        assertEquals(35.0, model.getRow(2).getPrice(), 0);
+    }
+
+    @Test
+    public void peopleAreMergedIntoTheirOwnGroup() {
+        PersonTableModel model = new PersonTableModel();
+        model.setRows(List.of(PersonView.of(new Author(1, "Ana", "Pérez"))),
+                List.of(PersonView.of(new Manager(2, "Eva", "Ruiz"))),
+                List.of());
+        List<Integer> inserted = new ArrayList<>();
+        model.addTableModelListener(e -> inserted.add(e.getFirstRow()));
+
+        model.mergeManagers(List.of(PersonView.of(new Manager(3, "Leo", "Díaz"))));
+        model.mergeNarrators(List.of(PersonView.of(new Narrator(1, "Sara", "Mora"))));
+
+        assertEquals(List.of(2, 3), inserted);
+        assertEquals("Gerente", model.getValueAt(2, 2));
+        assertEquals("Narrador", model.getValueAt(3, 2));
+    }
+}